@@ -14,6 +14,7 @@
 
 package com.github.housepower.jdbc;
 
+import com.github.housepower.jdbc.buffer.ByteBufferPool;
 import com.github.housepower.jdbc.connect.PhysicalConnection;
 import com.github.housepower.jdbc.connect.PhysicalInfo;
 import com.github.housepower.jdbc.data.Block;
@@ -34,6 +35,7 @@ import java.time.ZoneId;
 import java.util.Locale;
 import java.util.Properties;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -47,25 +49,65 @@ public class ClickHouseConnection implements SQLConnection {
     private final ClickHouseConfig configure;
     private final AtomicReference<PhysicalInfo> atomicInfo;
     private final AtomicReference<ConnectionState> state = new AtomicReference<>(ConnectionState.IDLE);
+    // column buffers of insert blocks, reused across batches
+    private final ByteBufferPool bufferPool;
+    private final AtomicLong pingsAvoided = new AtomicLong();
+    private final SampleBlockCache sampleBlockCache;
+    // the key of the INSERT waiting for its data, and the cached sample block the server's one is
+    // still to be checked against, see #receivePendingSampleBlock()
+    private volatile String insertKey;
+    private volatile Block pendingSampleBlock;
 
     protected ClickHouseConnection(ClickHouseConfig configure, PhysicalInfo info) {
+        this(configure, info, new SampleBlockCache(configure.sampleBlockCacheTtl()));
+    }
+
+    ClickHouseConnection(ClickHouseConfig configure, PhysicalInfo info, SampleBlockCache sampleBlockCache) {
         this.isClosed = new AtomicBoolean(false);
         this.configure = configure;
         this.atomicInfo = new AtomicReference<>(info);
+        this.bufferPool = ByteBufferPool.ofBytes(configure.columnBufferSize(), configure.columnBufferPoolBytes());
+        this.sampleBlockCache = sampleBlockCache;
     }
 
     public ClickHouseConfig getConfigure() {
         return configure;
     }
 
+    public ByteBufferPool bufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * The number of queries sent without a ping first, because the connection had been used recently.
+     */
+    public long pingsAvoided() {
+        return pingsAvoided.get();
+    }
+
+    /**
+     * Forgets the cached columns of all INSERT targets, e.g. after altering tables, see sample_block_cache_ttl.
+     */
+    public void invalidateSampleBlocks() {
+        sampleBlockCache.invalidateAll();
+    }
+
     @Override
     public void close() throws SQLException {
         if (!isClosed() && isClosed.compareAndSet(false, true)) {
-            PhysicalConnection connection = atomicInfo.get().connection();
-            connection.disPhysicalConnection();
+            closePhysicalConnection(atomicInfo.get(), state.get() == ConnectionState.IDLE);
         }
     }
 
+    /**
+     * Disposes the physical connection, once the connection is closed.
+     *
+     * @param idle false when an insert is still waiting for its data
+     */
+    protected void closePhysicalConnection(PhysicalInfo info, boolean idle) throws SQLException {
+        info.connection().disPhysicalConnection();
+    }
+
     @Override
     public boolean isClosed() throws SQLException {
         return isClosed.get();
@@ -118,28 +160,74 @@ public class ClickHouseConnection implements SQLConnection {
     public boolean isValid(int timeout) throws SQLException {
         ClickHouseConfig validConfigure = configure.copy();
         validConfigure.setQueryTimeout(timeout * 1000);
-        try (Connection connection = new ClickHouseConnection(validConfigure, atomicInfo.get());
-             Statement statement = connection.createStatement()) {
+        // shares this connection's physical connection, so it must not be closed
+        Connection connection = new ClickHouseConnection(validConfigure, atomicInfo.get());
+        try (Statement statement = connection.createStatement()) {
             statement.execute("SELECT 1");
             return true;
         }
     }
 
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        Validate.isTrue(isWrapperFor(iface), "Unable to unwrap to " + iface.getName());
+        return iface.cast(this);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isAssignableFrom(getClass());
+    }
+
     public Block getSampleBlock(final String insertQuery) throws SQLException {
-        PhysicalConnection connection = getHealthyPhysicalConnection();
-        connection.sendQuery(insertQuery, atomicInfo.get().client(), configure.settings());
+        Validate.isTrue(!isClosed(), "Unable to send the insert query, because the connection is closed.");
         Validate.isTrue(this.state.compareAndSet(ConnectionState.IDLE, ConnectionState.WAITING_INSERT),
                 "Connection is currently waiting for an insert operation, check your previous InsertStatement.");
-        return connection.receiveSampleBlock(configure.queryTimeout(), atomicInfo.get().server());
+        String key = SampleBlockCache.key(configure.database(), insertQuery);
+        this.insertKey = key;
+        try {
+            Block cached = sampleBlockCache.get(key);
+            if (cached != null) {
+                retryOnBrokenConnection(connection -> {
+                    connection.sendQuery(insertQuery, atomicInfo.get().client(), configure.settings());
+                    return null;
+                }, true);
+                this.pendingSampleBlock = cached;
+                return cached;
+            }
+            // nothing is inserted until data blocks follow, so the schema request may be retried
+            Block sample = retryOnBrokenConnection(connection -> {
+                connection.sendQuery(insertQuery, atomicInfo.get().client(), configure.settings());
+                return connection.receiveSampleBlock(configure.queryTimeout(), atomicInfo.get().server());
+            }, true);
+            sampleBlockCache.put(key, sample);
+            return sample;
+        } catch (SQLException rethrows) {
+            this.state.compareAndSet(ConnectionState.WAITING_INSERT, ConnectionState.IDLE);
+            throw rethrows;
+        }
     }
 
     public QueryResponse sendQueryRequest(final String query, ClickHouseConfig cfg) throws SQLException {
+        Validate.isTrue(!isClosed(), "Unable to send the query, because the connection is closed.");
         Validate.isTrue(this.state.get() == ConnectionState.IDLE,
                 "Connection is currently waiting for an insert operation, check your previous InsertStatement.");
-        PhysicalConnection connection = getHealthyPhysicalConnection();
-        connection.sendQuery(query, atomicInfo.get().client(), cfg.settings());
 
-        return new QueryResponse(() -> connection.receiveResponse(configure.queryTimeout(), atomicInfo.get().server()));
+        return retryOnBrokenConnection(connection -> {
+            connection.sendQuery(query, atomicInfo.get().client(), cfg.settings());
+            QueryResponse response = new QueryResponse(
+                    () -> connection.receiveResponse(configure.queryTimeout(), atomicInfo.get().server()));
+            // the header is the first packet of the result, failing on it nothing has been consumed yet
+            response.header();
+            return response;
+        }, isReadOnly(query));
+    }
+
+    /**
+     * Asks the server to stop the query running on this connection, if any.
+     */
+    public void sendCancel() throws SQLException {
+        getPhysicalConnection().sendCancel();
     }
 
     // when sendInsertRequest we must ensure the connection is healthy
@@ -148,25 +236,141 @@ public class ClickHouseConnection implements SQLConnection {
         Validate.isTrue(this.state.get() == ConnectionState.WAITING_INSERT,
                 "Call getSampleBlock before insert.");
 
+        receivePendingSampleBlock();
         PhysicalConnection connection = getPhysicalConnection();
-        connection.sendData(block);
-        connection.sendData(new Block());
-        connection.receiveEndOfStream(configure.queryTimeout(), atomicInfo.get().server());
+        try {
+            connection.sendData(block);
+            connection.sendData(new Block());
+            connection.receiveEndOfStream(configure.queryTimeout(), atomicInfo.get().server());
+        } catch (SQLException ex) {
+            // the table may have changed since its columns were cached
+            sampleBlockCache.invalidate(insertKey);
+            throw ex;
+        }
         Validate.isTrue(this.state.compareAndSet(ConnectionState.WAITING_INSERT, ConnectionState.IDLE));
         return block.rows();
     }
 
+    /**
+     * Sends a part of the insert data and keeps the INSERT open, {@link #sendInsertRequest(Block)} finishes it.
+     */
+    public void sendInsertData(Block block) throws SQLException {
+        Validate.isTrue(this.state.get() == ConnectionState.WAITING_INSERT,
+                "Call getSampleBlock before insert.");
+        receivePendingSampleBlock();
+        try {
+            getPhysicalConnection().sendData(block);
+        } catch (SQLException ex) {
+            sampleBlockCache.invalidate(insertKey);
+            throw ex;
+        }
+    }
+
+    /**
+     * Abandons the INSERT waiting for its data, after a part of it failed to be sent. The physical connection
+     * is disposed, which ends the INSERT on the server, and the next request opens a new one.
+     */
+    public void abortInsert() {
+        pendingSampleBlock = null;
+        PhysicalConnection connection = getPhysicalConnection();
+        if (this.state.get() != ConnectionState.WAITING_INSERT && !connection.isBroken()) {
+            // already ended cleanly, when the cached sample block didn't match
+            return;
+        }
+        try {
+            connection.disPhysicalConnection();
+        } catch (SQLException ignored) {
+            // the connection is discarded anyway
+        }
+        this.state.compareAndSet(ConnectionState.WAITING_INSERT, ConnectionState.IDLE);
+    }
+
+    /**
+     * Receives the sample block of an INSERT which was given a cached one, before its first data block.
+     * If the columns differ, the INSERT is ended without data and fails, the next one fetches them again.
+     */
+    private void receivePendingSampleBlock() throws SQLException {
+        Block expected = pendingSampleBlock;
+        if (expected == null) {
+            return;
+        }
+        pendingSampleBlock = null;
+        PhysicalConnection connection = getPhysicalConnection();
+        boolean same;
+        try {
+            // compared with the cached columns as it is read, nothing else needs it
+            same = connection.receiveSampleBlock(expected, configure.queryTimeout(), atomicInfo.get().server());
+        } catch (SQLException ex) {
+            // e.g. the table was dropped, the server has ended the INSERT with the exception
+            sampleBlockCache.invalidate(insertKey);
+            this.state.compareAndSet(ConnectionState.WAITING_INSERT, ConnectionState.IDLE);
+            throw ex;
+        }
+        if (!same) {
+            sampleBlockCache.invalidate(insertKey);
+            connection.sendData(new Block());
+            connection.receiveEndOfStream(configure.queryTimeout(), atomicInfo.get().server());
+            this.state.compareAndSet(ConnectionState.WAITING_INSERT, ConnectionState.IDLE);
+            throw new SQLException("The columns of the INSERT target changed since they were cached, "
+                    + "nothing was inserted, retry the INSERT.");
+        }
+    }
+
+    /**
+     * Runs the request on a healthy connection. A connection found broken by the request itself is
+     * replaced and, if the request is idempotent, the request is run once more on the new one.
+     */
+    private <T> T retryOnBrokenConnection(ConnectionRequest<T> request, boolean idempotent) throws SQLException {
+        PhysicalConnection connection = getHealthyPhysicalConnection();
+        try {
+            return request.apply(connection);
+        } catch (SQLException ex) {
+            if (!connection.isBroken()) {
+                throw ex;
+            }
+            reconnect(atomicInfo.get());
+            if (!idempotent) {
+                throw ex;
+            }
+            return request.apply(getPhysicalConnection());
+        }
+    }
+
     private PhysicalConnection getHealthyPhysicalConnection() throws SQLException {
         PhysicalInfo oldInfo = atomicInfo.get();
-        if (!oldInfo.connection().ping(configure.queryTimeout(), atomicInfo.get().server())) {
-            PhysicalInfo newInfo = createPhysicalInfo(configure);
-            PhysicalInfo closeableInfo = atomicInfo.compareAndSet(oldInfo, newInfo) ? oldInfo : newInfo;
-            closeableInfo.connection().disPhysicalConnection();
+        PhysicalConnection connection = oldInfo.connection();
+        if (connection.isBroken()) {
+            reconnect(oldInfo);
+        } else if (!connection.hasPendingResponse() && connection.idleMillis() < configure.healthCheckIdleTime()) {
+            pingsAvoided.incrementAndGet();
+        } else if (!connection.ping(configure.queryTimeout(), oldInfo.server())) {
+            reconnect(oldInfo);
         }
 
         return atomicInfo.get().connection();
     }
 
+    private void reconnect(PhysicalInfo oldInfo) throws SQLException {
+        PhysicalInfo newInfo = createPhysicalInfo(configure);
+        PhysicalInfo closeableInfo = atomicInfo.compareAndSet(oldInfo, newInfo) ? oldInfo : newInfo;
+        try {
+            closeableInfo.connection().disPhysicalConnection();
+        } catch (SQLException ignored) {
+            // the broken connection may fail to flush, it is discarded anyway
+        }
+    }
+
+    private static boolean isReadOnly(String query) {
+        String upperQuery = query.trim().toUpperCase(Locale.ROOT);
+        return upperQuery.startsWith("SELECT") || upperQuery.startsWith("WITH") || upperQuery.startsWith("SHOW")
+                || upperQuery.startsWith("DESC") || upperQuery.startsWith("EXISTS");
+    }
+
+    @FunctionalInterface
+    private interface ConnectionRequest<T> {
+        T apply(PhysicalConnection connection) throws SQLException;
+    }
+
     private PhysicalConnection getPhysicalConnection() {
         return atomicInfo.get().connection();
     }
@@ -175,17 +379,20 @@ public class ClickHouseConnection implements SQLConnection {
         return new ClickHouseConnection(configure, createPhysicalInfo(configure));
     }
 
-    private static PhysicalInfo createPhysicalInfo(ClickHouseConfig configure) throws SQLException {
-        PhysicalConnection physical = PhysicalConnection.openPhysicalConnection(configure);
-        return new PhysicalInfo(clientInfo(physical, configure), serverInfo(physical, configure), physical);
+    static PhysicalInfo createPhysicalInfo(ClickHouseConfig configure) throws SQLException {
+        return PhysicalConnection.openPhysicalConnection(configure, physical -> {
+            PhysicalInfo.ServerInfo serverInfo = serverInfo(physical, configure);
+            return new PhysicalInfo(clientInfo(physical, serverInfo), serverInfo, physical);
+        });
     }
 
-    private static QueryRequest.ClientInfo clientInfo(PhysicalConnection physical, ClickHouseConfig configure) throws SQLException {
+    private static QueryRequest.ClientInfo clientInfo(PhysicalConnection physical, PhysicalInfo.ServerInfo serverInfo)
+            throws SQLException {
         Validate.isTrue(physical.address() instanceof InetSocketAddress);
         InetSocketAddress address = (InetSocketAddress) physical.address();
         String clientName = String.format(Locale.ROOT, "%s %s", ClickHouseDefines.NAME, "client");
         String initialAddress = "[::ffff:127.0.0.1]:0";
-        return new QueryRequest.ClientInfo(initialAddress, address.getHostName(), clientName);
+        return new QueryRequest.ClientInfo(initialAddress, address.getHostName(), clientName, serverInfo.reversion());
     }
 
     private static PhysicalInfo.ServerInfo serverInfo(PhysicalConnection physical, ClickHouseConfig configure) throws SQLException {
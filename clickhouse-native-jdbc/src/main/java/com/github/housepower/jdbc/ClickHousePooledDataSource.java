@@ -0,0 +1,292 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.housepower.jdbc;
+
+import com.github.housepower.jdbc.connect.PhysicalConnection;
+import com.github.housepower.jdbc.connect.PhysicalInfo;
+import com.github.housepower.jdbc.misc.Validate;
+import com.github.housepower.jdbc.settings.ClickHouseConfig;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * A {@link DataSource} which keeps the handshaked physical connections of closed connections for reuse.
+ * <p>
+ * Every leased connection starts from a fresh copy of the data source's configuration, so settings
+ * changed on a connection don't leak to the next lease. A physical connection is only kept if it is
+ * neither broken nor in the middle of a query or an insert, and is dropped once idle for longer than
+ * pool_max_idle_time. Whether a kept connection is still alive is checked by the connection's own
+ * health check, see health_check_idle_time.
+ */
+public class ClickHousePooledDataSource implements DataSource, Closeable {
+
+    private final ClickHouseConfig configure;
+    private final int maxSize;
+    // the cached columns of INSERT targets outlive the leases, see sample_block_cache_ttl
+    private final SampleBlockCache sampleBlockCache;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    // most recently released first, they are the least likely to be stale
+    private final Deque<PhysicalInfo> idle = new ArrayDeque<>();
+    private int total;
+    private int active;
+    private boolean closed;
+
+    private long leases;
+    private long created;
+    private long waitNanos;
+
+    private PrintWriter logWriter;
+    private int loginTimeout;
+
+    public ClickHousePooledDataSource(String url) throws SQLException {
+        this(url, new Properties());
+    }
+
+    public ClickHousePooledDataSource(String url, Properties properties) throws SQLException {
+        this.configure = new ClickHouseConfig(url, properties);
+        this.maxSize = configure.poolMaxSize();
+        this.sampleBlockCache = new SampleBlockCache(configure.sampleBlockCacheTtl());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return new PooledClickHouseConnection(configure.copy(), acquire(), this, sampleBlockCache);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Validate.isTrue(configure.username().equals(username) && configure.password().equals(password),
+                "Pooled connections are only available for the user of the data source.");
+        return getConnection();
+    }
+
+    private PhysicalInfo acquire() throws SQLException {
+        long start = System.nanoTime();
+        long remaining = TimeUnit.MILLISECONDS.toNanos(configure.poolMaxWait());
+        lock.lock();
+        try {
+            while (true) {
+                Validate.isTrue(!closed, "Unable to get a connection, because the data source is closed.");
+                PhysicalInfo info = idle.pollFirst();
+                if (info != null) {
+                    if (reusable(info) && info.connection().idleMillis() <= configure.poolMaxIdleTime()) {
+                        return leased(info, start);
+                    }
+                    total--;
+                    dispose(info);
+                    continue;
+                }
+                if (total < maxSize) {
+                    total++;
+                    break;
+                }
+                Validate.isTrue(remaining > 0, "Timeout waiting for a connection, all " + maxSize
+                        + " pooled connections are in use.");
+                remaining = available.awaitNanos(remaining);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a pooled connection.", ex);
+        } finally {
+            lock.unlock();
+        }
+
+        // connect outside of the lock, the slot is already reserved
+        PhysicalInfo info;
+        try {
+            info = ClickHouseConnection.createPhysicalInfo(configure);
+        } catch (SQLException | RuntimeException ex) {
+            lock.lock();
+            try {
+                total--;
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw ex;
+        }
+        lock.lock();
+        try {
+            created++;
+            return leased(info, start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private PhysicalInfo leased(PhysicalInfo info, long start) {
+        active++;
+        leases++;
+        waitNanos += System.nanoTime() - start;
+        return info;
+    }
+
+    void release(PhysicalInfo info, boolean idleState) {
+        lock.lock();
+        try {
+            active--;
+            if (!closed && idleState && reusable(info)) {
+                idle.addFirst(info);
+            } else {
+                total--;
+                dispose(info);
+            }
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean reusable(PhysicalInfo info) {
+        PhysicalConnection connection = info.connection();
+        return !connection.isBroken() && !connection.hasPendingResponse();
+    }
+
+    private static void dispose(PhysicalInfo info) {
+        try {
+            info.connection().disPhysicalConnection();
+        } catch (SQLException ignored) {
+            // the connection is discarded anyway
+        }
+    }
+
+    /**
+     * Closes the idle connections, connections still in use are closed when they are released.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            for (PhysicalInfo info : idle) {
+                total--;
+                dispose(info);
+            }
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int activeConnections() {
+        lock.lock();
+        try {
+            return active;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int idleConnections() {
+        lock.lock();
+        try {
+            return idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The number of physical connections opened so far, the handshakes paid by the pool.
+     */
+    public long createdConnections() {
+        lock.lock();
+        try {
+            return created;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forgets the cached columns of all INSERT targets, e.g. after altering tables, see sample_block_cache_ttl.
+     */
+    public void invalidateSampleBlocks() {
+        sampleBlockCache.invalidateAll();
+    }
+
+    public long leasedConnections() {
+        lock.lock();
+        try {
+            return leases;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Total time in milliseconds callers of getConnection spent waiting, including opening new connections.
+     */
+    public long waitTimeMillis() {
+        lock.lock();
+        try {
+            return TimeUnit.NANOSECONDS.toMillis(waitNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return logWriter;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        this.logWriter = out;
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        this.loginTimeout = seconds;
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return loginTimeout;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        Validate.isTrue(isWrapperFor(iface), "Unable to unwrap to " + iface.getName());
+        return iface.cast(this);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isAssignableFrom(getClass());
+    }
+}
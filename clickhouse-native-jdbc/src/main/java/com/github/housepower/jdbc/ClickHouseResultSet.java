@@ -19,6 +19,8 @@ import com.github.housepower.jdbc.data.IColumn;
 import com.github.housepower.jdbc.misc.CheckedIterator;
 import com.github.housepower.jdbc.misc.Validate;
 import com.github.housepower.jdbc.protocol.DataResponse;
+import com.github.housepower.jdbc.protocol.PrefetchingDataIterator;
+import com.github.housepower.jdbc.protocol.QueryResponse;
 import com.github.housepower.jdbc.statement.ClickHouseStatement;
 import com.github.housepower.jdbc.wrapper.SQLResultSet;
 
@@ -28,8 +30,10 @@ import java.net.URL;
 import java.sql.*;
 
 public class ClickHouseResultSet implements SQLResultSet {
+    private static final Block EMPTY = new Block();
+
     private int row = -1;
-    private Block current = new Block();
+    private Block current = EMPTY;
 
     private int lastFetchRow = -1;
     private int lastFetchColumn = -1;
@@ -40,16 +44,28 @@ public class ClickHouseResultSet implements SQLResultSet {
     private final String table;
     private final ClickHouseStatement statement;
     private final CheckedIterator<DataResponse, SQLException> iterator;
+    // the response the iterator reads, drained when the result set is closed early
+    private final QueryResponse response;
+    private boolean isClosed;
 
     public ClickHouseResultSet(Block header, String db,
                                String table,
                                CheckedIterator<DataResponse, SQLException> iterator,
                                ClickHouseStatement statement) {
+        this(header, db, table, iterator, statement, null);
+    }
+
+    public ClickHouseResultSet(Block header, String db,
+                               String table,
+                               CheckedIterator<DataResponse, SQLException> iterator,
+                               ClickHouseStatement statement,
+                               QueryResponse response) {
         this.header = header;
         this.db = db;
         this.table = table;
         this.iterator = iterator;
         this.statement = statement;
+        this.response = response;
     }
 
     @Override
@@ -102,6 +118,11 @@ public class ClickHouseResultSet implements SQLResultSet {
         return this.getString(this.findColumn(name));
     }
 
+    @Override
+    public byte[] getBytes(String name) throws SQLException {
+        return this.getBytes(this.findColumn(name));
+    }
+
     @Override
     public Object getObject(String name) throws SQLException {
         return this.getObject(this.findColumn(name));
@@ -121,11 +142,7 @@ public class ClickHouseResultSet implements SQLResultSet {
 
     @Override
     public int getInt(int index) throws SQLException {
-        Object data = getObject(index);
-        if (data == null) {
-            return 0;
-        }
-        return ((Number) data).intValue();
+        return (int) getColumn(index).getLong(row);
     }
 
     @Override
@@ -139,11 +156,7 @@ public class ClickHouseResultSet implements SQLResultSet {
 
     @Override
     public byte getByte(int index) throws SQLException {
-        Object data = getObject(index);
-        if (data == null) {
-            return 0;
-        }
-        return ((Number) data).byteValue();
+        return (byte) getColumn(index).getLong(row);
     }
 
     @Override
@@ -154,11 +167,7 @@ public class ClickHouseResultSet implements SQLResultSet {
 
     @Override
     public long getLong(int index) throws SQLException {
-        Object data = getObject(index);
-        if (data == null) {
-            return 0;
-        }
-        return ((Number) data).longValue();
+        return getColumn(index).getLong(row);
     }
 
     @Override
@@ -169,43 +178,32 @@ public class ClickHouseResultSet implements SQLResultSet {
 
     @Override
     public float getFloat(int index) throws SQLException {
-        Object data = getObject(index);
-        if (data == null) {
-            return 0;
-        }
-        return ((Number) data).floatValue();
+        return (float) getColumn(index).getDouble(row);
     }
 
     @Override
     public short getShort(int index) throws SQLException {
-        Object data = getObject(index);
-        if (data == null) {
-            return 0;
-        }
-        return ((Number) data).shortValue();
+        return (short) getColumn(index).getLong(row);
     }
 
     @Override
     public double getDouble(int index) throws SQLException {
-        Object data = getObject(index);
-        if (data == null) {
-            return 0;
-        }
-        return ((Number) data).doubleValue();
+        return getColumn(index).getDouble(row);
     }
 
     @Override
     public String getString(int index) throws SQLException {
-        Object data = getObject(index);
-        return (String) data;
+        return getColumn(index).getString(row);
+    }
+
+    @Override
+    public byte[] getBytes(int index) throws SQLException {
+        return getColumn(index).getBytes(row);
     }
 
     @Override
     public Object getObject(int index) throws SQLException {
-        Validate.isTrue(row >= 0 && row < current.rows(),
-                "No row information was obtained.You must call ResultSet.next() before that.");
-        IColumn column = (lastFetchBlock = current).getByPosition((lastFetchColumn = index - 1));
-        return column.values((lastFetchRow = row));
+        return getColumn(index).values(row);
     }
 
     @Override
@@ -224,7 +222,22 @@ public class ClickHouseResultSet implements SQLResultSet {
 
     @Override
     public void close() throws SQLException {
-        // nothing
+        if (isClosed) {
+            return;
+        }
+        isClosed = true;
+        // stop the query rather than reading all of its remaining blocks, before waiting for the
+        // prefetching reader, which may be blocked until the server sends the next one
+        boolean unread = response != null && !response.isAtEnd();
+        if (unread) {
+            statement.cancel();
+        }
+        if (iterator instanceof PrefetchingDataIterator) {
+            ((PrefetchingDataIterator) iterator).close();
+        }
+        if (unread) {
+            response.drain();
+        }
     }
 
     @Override
@@ -232,12 +245,12 @@ public class ClickHouseResultSet implements SQLResultSet {
         Validate.isTrue(lastFetchBlock != null, "Please call Result.next()");
         Validate.isTrue(lastFetchColumn >= 0, "Please call Result.getXXX()");
         Validate.isTrue(lastFetchRow >= 0 && lastFetchRow < lastFetchBlock.rows(), "Please call Result.next()");
-        return lastFetchBlock.getByPosition(lastFetchColumn).values(lastFetchRow) == null;
+        return lastFetchBlock.getByPosition(lastFetchColumn).isNull(lastFetchRow);
     }
 
     @Override
     public boolean isClosed() throws SQLException {
-        return false;
+        return isClosed;
     }
 
     @Override
@@ -257,7 +270,75 @@ public class ClickHouseResultSet implements SQLResultSet {
 
     @Override
     public boolean next() throws SQLException {
-        return ++row < current.rows() || (row = 0) < (current = fetchBlock()).rows();
+        if (++row < current.rows()) {
+            return true;
+        }
+        // drop the consumed block before decoding the next one, so at most one block is held here
+        current = EMPTY;
+        lastFetchBlock = null;
+        return (row = 0) < (current = fetchBlock()).rows();
+    }
+
+    /**
+     * Returns the next block of the result as a whole, for consumers processing whole columns, e.g. by
+     * the read-only views of {@link com.github.housepower.jdbc.data.ColumnLong#longs()}. The rows of the
+     * current block not reached by {@link #next()} are skipped, and {@link #next()} continues with the
+     * block after the returned one.
+     *
+     * @return the next non empty block, or null at the end of the result
+     */
+    public Block nextBlock() throws SQLException {
+        current = EMPTY;
+        lastFetchBlock = null;
+        Block block = fetchBlock();
+        if (block.rows() == 0) {
+            row = -1;
+            return null;
+        }
+        current = block;
+        row = block.rows() - 1;
+        return block;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        Validate.isTrue(isWrapperFor(iface), "Unable to unwrap to " + iface.getName());
+        return iface.cast(this);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isAssignableFrom(getClass());
+    }
+
+    @Override
+    public int getType() throws SQLException {
+        return ResultSet.TYPE_FORWARD_ONLY;
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        return ResultSet.FETCH_FORWARD;
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        // the blocks are sized by the server when the query is sent, see Statement#setFetchSize
+        Validate.isTrue(rows >= 0, "Illegal fetchSize value: " + rows);
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return statement.getFetchSize();
+    }
+
+    private IColumn getColumn(int index) throws SQLException {
+        if (row < 0 || row >= current.rows()) {
+            throw new SQLException("No row information was obtained.You must call ResultSet.next() before that.");
+        }
+        IColumn column = (lastFetchBlock = current).getByPosition((lastFetchColumn = index - 1));
+        lastFetchRow = row;
+        return column;
     }
 
     private Block fetchBlock() throws SQLException {
@@ -267,6 +348,6 @@ public class ClickHouseResultSet implements SQLResultSet {
                 return next.block();
             }
         }
-        return new Block();
+        return EMPTY;
     }
 }
@@ -0,0 +1,41 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.housepower.jdbc;
+
+import com.github.housepower.jdbc.connect.PhysicalInfo;
+import com.github.housepower.jdbc.settings.ClickHouseConfig;
+
+import java.sql.SQLException;
+
+/**
+ * A connection leased from a {@link ClickHousePooledDataSource}, closing it hands the physical
+ * connection back to the pool.
+ */
+class PooledClickHouseConnection extends ClickHouseConnection {
+
+    private final ClickHousePooledDataSource dataSource;
+
+    PooledClickHouseConnection(ClickHouseConfig configure, PhysicalInfo info, ClickHousePooledDataSource dataSource,
+                               SampleBlockCache sampleBlockCache) {
+        super(configure, info, sampleBlockCache);
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    protected void closePhysicalConnection(PhysicalInfo info, boolean idle) throws SQLException {
+        dataSource.release(info, idle);
+    }
+}
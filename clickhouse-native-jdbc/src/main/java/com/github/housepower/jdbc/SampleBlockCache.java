@@ -0,0 +1,109 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.housepower.jdbc;
+
+import com.github.housepower.jdbc.data.Block;
+
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The sample blocks the server sent for INSERT queries, by database and query, shared by the connections
+ * of a {@link ClickHousePooledDataSource}. An INSERT finding its sample block here sends its data without
+ * waiting for the server's one, which is still checked against it before the first data block.
+ */
+class SampleBlockCache {
+
+    private final long ttlNanos;
+    private final ConcurrentMap<String, Entry> blocks = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    SampleBlockCache(int ttlMillis) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    static String key(String database, String insertQuery) {
+        return database + '\0' + insertQuery.trim();
+    }
+
+    /**
+     * An empty copy of the sample block cached for key, or null if there is none or it is expired.
+     */
+    Block get(String key) {
+        if (ttlNanos == 0) {
+            return null;
+        }
+        Entry entry = blocks.get(key);
+        if (entry == null || System.nanoTime() - entry.cachedNanos > ttlNanos) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.sample.newSampleBlock();
+    }
+
+    void put(String key, Block sample) {
+        if (ttlNanos != 0) {
+            // copied, the statements fill the blocks they are given
+            blocks.put(key, new Entry(sample.newSampleBlock(), System.nanoTime()));
+        }
+    }
+
+    void invalidate(String key) {
+        if (key != null) {
+            blocks.remove(key);
+        }
+    }
+
+    void invalidateAll() {
+        blocks.clear();
+    }
+
+    long hits() {
+        return hits.get();
+    }
+
+    long misses() {
+        return misses.get();
+    }
+
+    static boolean sameColumns(Block expected, Block actual) throws SQLException {
+        if (expected.columns() != actual.columns()) {
+            return false;
+        }
+        for (int i = 0; i < expected.columns(); i++) {
+            if (!expected.getByPosition(i).name().equals(actual.getByPosition(i).name())
+                    || !expected.getByPosition(i).type().name().equals(actual.getByPosition(i).type().name())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class Entry {
+        private final Block sample;
+        private final long cachedNanos;
+
+        Entry(Block sample, long cachedNanos) {
+            this.sample = sample;
+            this.cachedNanos = cachedNanos;
+        }
+    }
+}
@@ -15,10 +15,22 @@
 package com.github.housepower.jdbc.buffer;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 public interface BuffedReader {
 
     int readBinary() throws IOException;
 
     int readBinary(byte[] bytes) throws IOException;
+
+    int readBinary(byte[] bytes, int offset, int length) throws IOException;
+
+    /**
+     * Expose the buffered but unread bytes as a little-endian view of the backing buffer, refill it if
+     * nothing is buffered. The view is only valid until the next read, and reading from it does not
+     * move this reader, call {@link #consume(int)} with the number of bytes taken from it.
+     */
+    ByteBuffer buffered() throws IOException;
+
+    void consume(int length);
 }
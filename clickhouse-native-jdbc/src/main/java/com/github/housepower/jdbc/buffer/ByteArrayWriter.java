@@ -16,22 +16,27 @@ package com.github.housepower.jdbc.buffer;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  *
  */
 public class ByteArrayWriter implements BuffedWriter {
-    private final int blockSize;
+    private final ByteBufferPool pool;
     private ByteBuffer buffer;
+    // bytes of the filled buffers before the current one
+    private long filledBytes;
 
-    // TODO pooling
-    private final List<ByteBuffer> byteBufferList = new LinkedList<>();
+    private final List<ByteBuffer> byteBufferList = new ArrayList<>();
 
     public ByteArrayWriter(int blockSize) {
-        this.blockSize = blockSize;
-        this.buffer = ByteBuffer.allocate(blockSize);
+        this(new ByteBufferPool(blockSize, 0));
+    }
+
+    public ByteArrayWriter(ByteBufferPool pool) {
+        this.pool = pool;
+        this.buffer = pool.acquire();
         byteBufferList.add(buffer);
     }
 
@@ -67,11 +72,31 @@ public class ByteArrayWriter implements BuffedWriter {
         if (buffer.hasRemaining() && !force) {
             return;
         }
-        buffer = ByteBuffer.allocate(blockSize);
+        filledBytes += buffer.position();
+        buffer = pool.acquire();
         byteBufferList.add(buffer);
     }
 
+    /**
+     * The number of bytes written so far.
+     */
+    public long size() {
+        return buffer == null ? filledBytes : filledBytes + buffer.position();
+    }
+
     public List<ByteBuffer> getBufferList() {
         return byteBufferList;
     }
+
+    /**
+     * Return all the buffers to the pool, this writer must not be written after released.
+     */
+    public void release() {
+        for (ByteBuffer byteBuffer : byteBufferList) {
+            pool.release(byteBuffer);
+        }
+        byteBufferList.clear();
+        buffer = null;
+        filledBytes = 0;
+    }
 }
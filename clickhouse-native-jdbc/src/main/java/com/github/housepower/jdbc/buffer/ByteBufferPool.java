@@ -0,0 +1,88 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.housepower.jdbc.buffer;
+
+import java.nio.ByteBuffer;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of fixed size heap buffers, it's thread-safe. At most {@code maxPooledBuffers} idle buffers
+ * are kept, buffers released beyond that are left to GC.
+ */
+public class ByteBufferPool {
+
+    private final int bufferSize;
+    private final int maxPooledBuffers;
+
+    private final Deque<ByteBuffer> pooled = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger pooledCount = new AtomicInteger();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ByteBufferPool(int bufferSize, int maxPooledBuffers) {
+        this.bufferSize = bufferSize;
+        this.maxPooledBuffers = maxPooledBuffers;
+    }
+
+    /**
+     * A pool keeping at most {@code maxPooledBytes} of idle buffers.
+     */
+    public static ByteBufferPool ofBytes(int bufferSize, long maxPooledBytes) {
+        return new ByteBufferPool(bufferSize, (int) Math.min(Integer.MAX_VALUE, maxPooledBytes / bufferSize));
+    }
+
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = pooled.pollFirst();
+        if (buffer == null) {
+            misses.incrementAndGet();
+            return ByteBuffer.allocate(bufferSize);
+        }
+        pooledCount.decrementAndGet();
+        hits.incrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    public void release(ByteBuffer buffer) {
+        if (buffer.capacity() != bufferSize) {
+            return;
+        }
+        if (pooledCount.incrementAndGet() > maxPooledBuffers) {
+            pooledCount.decrementAndGet();
+            return;
+        }
+        pooled.offerFirst(buffer);
+    }
+
+    public int bufferSize() {
+        return bufferSize;
+    }
+
+    public int pooledBuffers() {
+        return pooledCount.get();
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+}
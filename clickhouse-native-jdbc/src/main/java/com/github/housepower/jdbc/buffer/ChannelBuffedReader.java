@@ -0,0 +1,127 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.housepower.jdbc.buffer;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads a non-blocking {@link SocketChannel} into a direct buffer. Waiting for data goes through the selector
+ * of the channel and honors the SO_TIMEOUT of {@code channel.socket()}, just like a blocking socket read.
+ */
+public class ChannelBuffedReader implements BuffedReader, Closeable {
+
+    private final SocketChannel channel;
+    private final ChannelSelector selector;
+    // unread bytes are in [position, limit) of buf
+    private final ByteBuffer buf;
+    private final ByteBuffer view;
+
+    public ChannelBuffedReader(SocketChannel channel, int capacity) throws IOException {
+        this(channel, new ChannelSelector(channel), capacity);
+    }
+
+    public ChannelBuffedReader(SocketChannel channel, ChannelSelector selector, int capacity) {
+        this.channel = channel;
+        this.selector = selector;
+
+        this.buf = ByteBuffer.allocateDirect(capacity);
+        this.buf.flip();
+        this.view = buf.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public int readBinary() throws IOException {
+        if (!buf.hasRemaining()) {
+            refill();
+        }
+
+        return buf.get() & 0xFF;
+    }
+
+    @Override
+    public int readBinary(byte[] bytes) throws IOException {
+        return readBinary(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public int readBinary(byte[] bytes, int offset, int length) throws IOException {
+        for (int i = offset; i < offset + length; ) {
+            if (!buf.hasRemaining()) {
+                refill();
+            }
+
+            int fillLength = Math.min(offset + length - i, buf.remaining());
+            buf.get(bytes, i, fillLength);
+            i += fillLength;
+        }
+        return length;
+    }
+
+    @Override
+    public ByteBuffer buffered() throws IOException {
+        if (!buf.hasRemaining()) {
+            refill();
+        }
+        view.limit(buf.limit());
+        view.position(buf.position());
+        return view;
+    }
+
+    @Override
+    public void consume(int length) {
+        buf.position(buf.position() + length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        selector.close();
+    }
+
+    private void refill() throws IOException {
+        buf.clear();
+        try {
+            int n;
+            long deadline = 0;
+            while ((n = channel.read(buf)) == 0) {
+                int timeout = channel.socket().getSoTimeout();
+                long remaining = 0;
+                if (timeout > 0) {
+                    // the select may return early, e.g. woken up by a writer of the channel
+                    long now = System.nanoTime();
+                    if (deadline == 0) {
+                        deadline = now + TimeUnit.MILLISECONDS.toNanos(timeout);
+                    }
+                    remaining = TimeUnit.NANOSECONDS.toMillis(deadline - now);
+                    if (remaining <= 0) {
+                        throw new SocketTimeoutException("Read timed out");
+                    }
+                }
+                selector.await(SelectionKey.OP_READ, remaining);
+            }
+            if (n < 0) {
+                throw new EOFException("Attempt to read after eof.");
+            }
+        } finally {
+            buf.flip();
+        }
+    }
+}
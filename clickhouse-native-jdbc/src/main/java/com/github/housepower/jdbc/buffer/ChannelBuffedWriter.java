@@ -0,0 +1,91 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.housepower.jdbc.buffer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Buffers writes in a direct buffer and drains it into a non-blocking {@link SocketChannel} when it is full
+ * or flushed, waiting for the channel to become writable through the selector of the channel.
+ */
+public class ChannelBuffedWriter implements BuffedWriter, Closeable {
+
+    private final SocketChannel channel;
+    private final ChannelSelector selector;
+    private final ByteBuffer buf;
+
+    public ChannelBuffedWriter(SocketChannel channel, int capacity) throws IOException {
+        this(channel, new ChannelSelector(channel), capacity);
+    }
+
+    public ChannelBuffedWriter(SocketChannel channel, ChannelSelector selector, int capacity) {
+        this.channel = channel;
+        this.selector = selector;
+
+        this.buf = ByteBuffer.allocateDirect(capacity);
+    }
+
+    @Override
+    public void writeBinary(byte byt) throws IOException {
+        if (!buf.hasRemaining()) {
+            drain();
+        }
+        buf.put(byt);
+    }
+
+    @Override
+    public void writeBinary(byte[] bytes) throws IOException {
+        writeBinary(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void writeBinary(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (!buf.hasRemaining()) {
+                drain();
+            }
+            int num = Math.min(length, buf.remaining());
+            buf.put(bytes, offset, num);
+            offset += num;
+            length -= num;
+        }
+    }
+
+    @Override
+    public void flushToTarget(boolean force) throws IOException {
+        drain();
+    }
+
+    @Override
+    public void close() throws IOException {
+        selector.close();
+    }
+
+    private void drain() throws IOException {
+        buf.flip();
+        try {
+            while (buf.hasRemaining()) {
+                if (channel.write(buf) == 0) {
+                    selector.await(SelectionKey.OP_WRITE, 0);
+                }
+            }
+        } finally {
+            buf.compact();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.housepower.jdbc.buffer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The one selector of a non-blocking {@link SocketChannel}, shared by its reader and writer. The channel
+ * is registered for OP_READ and OP_WRITE, but only the operations a thread waits for are of interest, so
+ * that a reader doesn't spin on a writable channel. The Cancel packet is written while another thread
+ * waits for data, so the waits may overlap: one thread selects at a time, and a waiting writer wakes up
+ * the reader's select to wait for both.
+ */
+public class ChannelSelector implements Closeable {
+
+    private final Selector selector;
+    private final SelectionKey key;
+    private final ReentrantLock selecting = new ReentrantLock();
+    // guarded by this
+    private int interestOps;
+
+    public ChannelSelector(SocketChannel channel) throws IOException {
+        this.selector = Selector.open();
+        this.key = channel.register(selector, 0);
+    }
+
+    /**
+     * Waits until the channel may be ready for {@code op}, at most {@code timeoutMillis} if positive.
+     * It may return early, the caller retries the operation and waits again.
+     */
+    public void await(int op, long timeoutMillis) throws IOException {
+        synchronized (this) {
+            interestOps |= op;
+            key.interestOps(interestOps);
+        }
+        try {
+            if (selecting.isLocked()) {
+                selector.wakeup();
+            }
+            selecting.lock();
+            try {
+                selector.select(timeoutMillis);
+                selector.selectedKeys().clear();
+            } finally {
+                selecting.unlock();
+            }
+        } finally {
+            synchronized (this) {
+                interestOps &= ~op;
+                if (key.isValid()) {
+                    key.interestOps(interestOps);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        selector.close();
+    }
+}
@@ -14,30 +14,41 @@
 
 package com.github.housepower.jdbc.buffer;
 
-import java.io.IOException;
+import com.github.housepower.jdbc.misc.ClickHouseCityHash;
 
-import net.jpountz.lz4.LZ4Factory;
-import net.jpountz.lz4.LZ4FastDecompressor;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
 
 public class CompressedBuffedReader implements BuffedReader {
 
     private int position;
     private int capacity;
     private byte[] decompressed;
+    private ByteBuffer view;
 
     private final BuffedReader buf;
-    private final LZ4FastDecompressor lz4FastDecompressor = LZ4Factory.safeInstance().fastDecompressor();
+    private final boolean verifyChecksum;
+    private final CompressionCodec lz4 = new LZ4CompressionCodec();
+    private final CompressionCodec none = new NoneCompressionCodec();
+    // created on the first ZSTD frame, zstd-jni is an optional dependency
+    private CompressionCodec zstd;
+    private long decompressedBytes;
 
     public CompressedBuffedReader(BuffedReader buf) {
+        this(buf, true);
+    }
+
+    public CompressedBuffedReader(BuffedReader buf, boolean verifyChecksum) {
         this.buf = buf;
+        this.verifyChecksum = verifyChecksum;
     }
 
     @Override
     public int readBinary() throws IOException {
-        if (position == capacity) {
-            decompressed = readCompressedData();
-            this.position = 0;
-            this.capacity = decompressed.length;
+        while (position == capacity) {
+            refill();
         }
 
         return decompressed[position++];
@@ -45,14 +56,17 @@ public class CompressedBuffedReader implements BuffedReader {
 
     @Override
     public int readBinary(byte[] bytes) throws IOException {
-        for (int i = 0; i < bytes.length; ) {
-            if (position == capacity) {
-                decompressed = readCompressedData();
-                this.position = 0;
-                this.capacity = decompressed.length;
+        return readBinary(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public int readBinary(byte[] bytes, int offset, int length) throws IOException {
+        for (int i = offset; i < offset + length; ) {
+            while (position == capacity) {
+                refill();
             }
 
-            int pending = bytes.length - i;
+            int pending = offset + length - i;
             int fillLength = Math.min(pending, capacity - position);
 
             if (fillLength > 0) {
@@ -62,60 +76,107 @@ public class CompressedBuffedReader implements BuffedReader {
                 this.position += fillLength;
             }
         }
-        return bytes.length;
+        return length;
+    }
+
+    @Override
+    public ByteBuffer buffered() throws IOException {
+        while (position == capacity) {
+            refill();
+        }
+        if (view == null || view.array() != decompressed) {
+            view = ByteBuffer.wrap(decompressed).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        view.limit(capacity);
+        view.position(position);
+        return view;
+    }
+
+    @Override
+    public void consume(int length) {
+        position += length;
+    }
+
+    /**
+     * Total bytes decompressed so far, the server flushes a frame per data block so the delta across
+     * reading a block is its uncompressed size.
+     */
+    public long decompressedBytes() {
+        return decompressedBytes;
+    }
+
+    private void refill() throws IOException {
+        readCompressedData();
+        this.position = 0;
     }
 
 
-    private static final int LZ4 = 0x82;
-    private static final int NONE = 0x02;
-    private static final int ZSTD = 0x90;
+    private static final int COMPRESSION_HEADER_LENGTH = 9;
 
-    private byte[] readCompressedData() throws IOException {
-        //TODO: validate checksum
-        buf.readBinary(new byte[16]);
+    // scratch buffers reused across frames, they only grow
+    private final byte[] checksum = new byte[16];
+    private final long[] hash = new long[2];
+    private byte[] compressed = new byte[COMPRESSION_HEADER_LENGTH];
 
-        byte[] compressedHeader = new byte[9];
+    private void readCompressedData() throws IOException {
+        buf.readBinary(checksum);
 
-        if (buf.readBinary(compressedHeader) != 9) {
+        if (buf.readBinary(compressed, 0, COMPRESSION_HEADER_LENGTH) != COMPRESSION_HEADER_LENGTH) {
             //TODO:more detail for exception
             throw new IOException("");
         }
 
-        int method = unsignedByte(compressedHeader[0]);
-        int compressedSize = readInt(compressedHeader, 1);
-        int decompressedSize = readInt(compressedHeader, 5);
+        int method = unsignedByte(compressed[0]);
+        int compressedSize = readInt(compressed, 1);
+        int decompressedSize = readInt(compressed, 5);
 
-        switch (method) {
-            case LZ4:
-                return readLZ4CompressedData(compressedSize - 9, decompressedSize);
-            case NONE:
-                return readNoneCompressedData(decompressedSize);
-            default:
-                throw new UnsupportedOperationException("Unknown compression method: " + method);
+        // the checksum covers the header and the payload, so keep them together
+        if (compressed.length < compressedSize) {
+            compressed = Arrays.copyOf(compressed, compressedSize);
         }
-    }
-
-    private byte[] readNoneCompressedData(int size) throws IOException {
-        byte[] decompressed = new byte[size];
+        int payloadSize = compressedSize - COMPRESSION_HEADER_LENGTH;
+        buf.readBinary(compressed, COMPRESSION_HEADER_LENGTH, payloadSize);
 
-        if (buf.readBinary(decompressed) != size) {
-            throw new IOException("Cannot decompress use None method.");
+        if (verifyChecksum) {
+            verifyChecksum(compressedSize);
         }
 
-        return decompressed;
+        ensureDecompressedCapacity(decompressedSize);
+        codec(method).decompress(compressed, COMPRESSION_HEADER_LENGTH, payloadSize, decompressed, 0, decompressedSize);
+        this.capacity = decompressedSize;
+        this.decompressedBytes += decompressedSize;
     }
 
-    private byte[] readLZ4CompressedData(int compressedSize, int decompressedSize) throws IOException {
-        byte[] compressed = new byte[compressedSize];
-        if (buf.readBinary(compressed) == compressedSize) {
-            byte[] decompressed = new byte[decompressedSize];
+    private void verifyChecksum(int compressedSize) throws IOException {
+        ClickHouseCityHash.cityHash128(compressed, 0, compressedSize, hash);
+        if (hash[0] != readLong(checksum, 0) || hash[1] != readLong(checksum, 8)) {
+            throw new IOException("Checksum doesn't match: corrupted data.");
+        }
+    }
 
-            if (lz4FastDecompressor.decompress(compressed, decompressed) == compressedSize) {
-                return decompressed;
-            }
+    private CompressionCodec codec(int method) throws IOException {
+        switch (method) {
+            case LZ4CompressionCodec.METHOD:
+                return lz4;
+            case NoneCompressionCodec.METHOD:
+                return none;
+            case ZstdCompressionCodec.METHOD:
+                if (zstd == null) {
+                    if (!ZstdCompressionCodec.isAvailable()) {
+                        throw new IOException("Cannot decompress use ZSTD method, zstd-jni is not in the classpath.");
+                    }
+                    zstd = new ZstdCompressionCodec(ZstdCompressionCodec.DEFAULT_LEVEL);
+                }
+                return zstd;
+            default:
+                throw new UnsupportedOperationException("Unknown compression method: " + method);
         }
+    }
 
-        throw new IOException("Cannot decompress use LZ4 method.");
+    private void ensureDecompressedCapacity(int size) {
+        if (decompressed == null || decompressed.length < size) {
+            decompressed = new byte[size];
+        }
     }
 
     private int unsignedByte(byte byt) {
@@ -127,4 +188,8 @@ public class CompressedBuffedReader implements BuffedReader {
         return (bytes[begin] & 0xFF) | (bytes[begin + 1] & 0XFF) << 8 |
             (bytes[begin + 2] & 0xFF) << 16 | (0xFF & bytes[begin + 3]) << 24;
     }
+
+    private long readLong(byte[] bytes, int begin) {
+        return (readInt(bytes, begin) & 0xFFFFFFFFL) | (long) readInt(bytes, begin + 4) << 32;
+    }
 }
@@ -16,24 +16,49 @@ package com.github.housepower.jdbc.buffer;
 
 import com.github.housepower.jdbc.misc.ClickHouseCityHash;
 
-import net.jpountz.lz4.LZ4Compressor;
-import net.jpountz.lz4.LZ4Factory;
-
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 public class CompressedBuffedWriter implements BuffedWriter {
 
     private final int capacity;
     private final byte[] writtenBuf;
     private final BuffedWriter writer;
-    private final LZ4Compressor lz4Compressor = LZ4Factory.safeInstance().fastCompressor();
+    private final CompressionCodec codec;
+    // reused for every frame, sized for the largest frame so far
+    private byte[] compressedBuffer = new byte[0];
+    private final long[] checksum = new long[2];
+    private final int parallelism;
+    // frames compressed in the ForkJoinPool, written to the target in order
+    private final Deque<Future<ByteBuffer>> pendingFrames = new ArrayDeque<>();
 
     private int position;
 
     public CompressedBuffedWriter(int capacity, BuffedWriter writer) {
+        this(capacity, writer, new LZ4CompressionCodec());
+    }
+
+    public CompressedBuffedWriter(int capacity, BuffedWriter writer, CompressionCodec codec) {
+        this(capacity, writer, codec, 0);
+    }
+
+    /**
+     * @param parallelism the maximum number of frames compressed at the same time in the common ForkJoinPool,
+     *                    0 or 1 compresses them on the writing thread
+     */
+    public CompressedBuffedWriter(int capacity, BuffedWriter writer, CompressionCodec codec, int parallelism) {
         this.capacity = capacity;
         this.writtenBuf = new byte[capacity];
         this.writer = writer;
+        this.codec = codec;
+        this.parallelism = parallelism;
     }
 
 
@@ -50,6 +75,13 @@ public class CompressedBuffedWriter implements BuffedWriter {
 
     @Override
     public void writeBinary(byte[] bytes, int offset, int length) throws IOException {
+        // nothing is pending, compress whole frames straight from the caller's buffer
+        while (position == 0 && length >= capacity) {
+            compressToTarget(bytes, offset, capacity);
+            offset += capacity;
+            length -= capacity;
+        }
+
         while (remaing() < length) {
             int num = remaing();
             System.arraycopy(bytes, offset, writtenBuf, position, remaing());
@@ -71,23 +103,81 @@ public class CompressedBuffedWriter implements BuffedWriter {
     @Override
     public void flushToTarget(boolean force) throws IOException {
         if (position > 0 && (force || !hasRemaining())) {
-            int maxLen = lz4Compressor.maxCompressedLength(position);
+            compressToTarget(writtenBuf, 0, position);
+            position = 0;
+        }
+        if (force) {
+            while (!pendingFrames.isEmpty()) {
+                writePendingFrame();
+            }
+        }
+    }
 
-            byte[] compressedBuffer = new byte[maxLen + 9 + 16];
-            int res = lz4Compressor.compress(writtenBuf, 0, position, compressedBuffer, 9 + 16);
+    private void compressToTarget(byte[] bytes, int offset, int length) throws IOException {
+        if (parallelism <= 1) {
+            int maxLen = codec.maxCompressedLength(length) + COMPRESSION_HEADER_LENGTH + 16;
+            if (compressedBuffer.length < maxLen) {
+                compressedBuffer = new byte[maxLen];
+            }
+            int size = compressFrame(codec, bytes, offset, length, compressedBuffer, checksum);
+            writer.writeBinary(compressedBuffer, 0, size);
+            return;
+        }
 
-            compressedBuffer[16] = (byte) (0x82 & 0xFF);
-            int compressedSize = res + COMPRESSION_HEADER_LENGTH;
-            System.arraycopy(littleEndian(compressedSize), 0, compressedBuffer, 17, 4);
-            System.arraycopy(littleEndian(position), 0, compressedBuffer, 21, 4);
+        // the source is reused by the caller once we return, so the frame is compressed from a copy
+        byte[] frame = Arrays.copyOfRange(bytes, offset, offset + length);
+        pendingFrames.add(ForkJoinPool.commonPool().submit(() -> {
+            byte[] compressed = new byte[codec.maxCompressedLength(frame.length) + COMPRESSION_HEADER_LENGTH + 16];
+            int size = compressFrame(codec, frame, 0, frame.length, compressed, new long[2]);
+            return ByteBuffer.wrap(compressed, 0, size);
+        }));
+        if (pendingFrames.size() >= parallelism) {
+            writePendingFrame();
+        }
+    }
 
-            long[] checksum = ClickHouseCityHash.cityHash128(compressedBuffer, 16, compressedSize);
-            System.arraycopy(littleEndian(checksum[0]), 0, compressedBuffer, 0, 8);
-            System.arraycopy(littleEndian(checksum[1]), 0, compressedBuffer, 8, 8);
+    private void writePendingFrame() throws IOException {
+        ByteBuffer compressed;
+        try {
+            compressed = pendingFrames.peekFirst().get();
+            pendingFrames.removeFirst();
+        } catch (InterruptedException ex) {
+            discardPendingFrames();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing");
+        } catch (ExecutionException ex) {
+            discardPendingFrames();
+            Throwable cause = ex.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause.getMessage(), cause);
+        }
+        writer.writeBinary(compressed.array(), 0, compressed.limit());
+    }
 
-            writer.writeBinary(compressedBuffer, 0, compressedSize + 16);
-            position = 0;
+    private void discardPendingFrames() {
+        for (Future<ByteBuffer> frame : pendingFrames) {
+            frame.cancel(false);
         }
+        pendingFrames.clear();
+    }
+
+    /**
+     * Compress a frame with its header and checksum into {@code dst}.
+     *
+     * @return the size of the frame in dst
+     */
+    private static int compressFrame(CompressionCodec codec, byte[] bytes, int offset, int length,
+                                     byte[] dst, long[] checksum) throws IOException {
+        int res = codec.compress(bytes, offset, length, dst, 9 + 16);
+
+        dst[16] = (byte) (codec.method() & 0xFF);
+        int compressedSize = res + COMPRESSION_HEADER_LENGTH;
+        writeLittleEndian(dst, 17, compressedSize);
+        writeLittleEndian(dst, 21, length);
+
+        ClickHouseCityHash.cityHash128(dst, 16, compressedSize, checksum);
+        writeLittleEndian(dst, 0, checksum[0]);
+        writeLittleEndian(dst, 8, checksum[1]);
+        return compressedSize + 16;
     }
 
     private boolean hasRemaining() {
@@ -98,29 +188,16 @@ public class CompressedBuffedWriter implements BuffedWriter {
         return capacity - position;
     }
 
-    private byte[] littleEndian(int x) {
-        byte[] data = new byte[4];
-
-        data[0] = (byte) (x & 0xFF);
-        data[1] = (byte) ((byte) (x >> 8) & 0xFF);
-        data[2] = (byte) ((byte) (x >> 16) & 0xFF);
-        data[3] = (byte) ((byte) (x >> 24) & 0xFF);
-
-        return data;
+    private static void writeLittleEndian(byte[] bytes, int begin, int x) {
+        bytes[begin] = (byte) (x & 0xFF);
+        bytes[begin + 1] = (byte) ((x >> 8) & 0xFF);
+        bytes[begin + 2] = (byte) ((x >> 16) & 0xFF);
+        bytes[begin + 3] = (byte) ((x >> 24) & 0xFF);
     }
 
-    private byte[] littleEndian(long x) {
-        byte[] data = new byte[8];
-
-        data[0] = (byte) (x & 0xFF);
-        data[1] = (byte) ((byte) (x >> 8) & 0xFF);
-        data[2] = (byte) ((byte) (x >> 16) & 0xFF);
-        data[3] = (byte) ((byte) (x >> 24) & 0xFF);
-        data[4] = (byte) ((byte) (x >> 32) & 0xFF);
-        data[5] = (byte) ((byte) (x >> 40) & 0xFF);
-        data[6] = (byte) ((byte) (x >> 48) & 0xFF);
-        data[7] = (byte) ((byte) (x >> 56) & 0xFF);
-
-        return data;
+    private static void writeLittleEndian(byte[] bytes, int begin, long x) {
+        for (int i = 0; i < 8; i++) {
+            bytes[begin + i] = (byte) ((x >> (8 * i)) & 0xFF);
+        }
     }
 }
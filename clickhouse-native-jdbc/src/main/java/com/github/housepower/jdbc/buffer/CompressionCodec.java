@@ -0,0 +1,55 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.housepower.jdbc.buffer;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Codec of the payload of a compressed frame, the frame layout (checksum and header) is handled by
+ * {@link CompressedBuffedReader} and {@link CompressedBuffedWriter}.
+ */
+public interface CompressionCodec {
+
+    /**
+     * The method byte which leads the frame header.
+     */
+    int method();
+
+    int maxCompressedLength(int length);
+
+    /**
+     * Compress {@code src[srcOffset, srcOffset + length)} into {@code dst} from {@code dstOffset}, which has at
+     * least {@link #maxCompressedLength(int)} bytes left.
+     *
+     * @return the compressed size
+     */
+    int compress(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset) throws IOException;
+
+    void decompress(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset, int decompressedLength)
+        throws IOException;
+
+    static CompressionCodec of(String name, int level) {
+        switch (name.toUpperCase(Locale.ROOT)) {
+            case "LZ4":
+                return new LZ4CompressionCodec();
+            case "ZSTD":
+                return new ZstdCompressionCodec(level);
+            case "NONE":
+                return new NoneCompressionCodec();
+            default:
+                throw new IllegalArgumentException("Unknown compression method: " + name);
+        }
+    }
+}
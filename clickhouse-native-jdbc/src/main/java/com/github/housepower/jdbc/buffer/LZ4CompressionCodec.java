@@ -0,0 +1,51 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.housepower.jdbc.buffer;
+
+import java.io.IOException;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+public class LZ4CompressionCodec implements CompressionCodec {
+
+    public static final int METHOD = 0x82;
+
+    private final LZ4Compressor lz4Compressor = LZ4Factory.safeInstance().fastCompressor();
+    private final LZ4FastDecompressor lz4FastDecompressor = LZ4Factory.safeInstance().fastDecompressor();
+
+    @Override
+    public int method() {
+        return METHOD;
+    }
+
+    @Override
+    public int maxCompressedLength(int length) {
+        return lz4Compressor.maxCompressedLength(length);
+    }
+
+    @Override
+    public int compress(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset) {
+        return lz4Compressor.compress(src, srcOffset, length, dst, dstOffset);
+    }
+
+    @Override
+    public void decompress(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset, int decompressedLength)
+        throws IOException {
+        if (lz4FastDecompressor.decompress(src, srcOffset, dst, dstOffset, decompressedLength) != length) {
+            throw new IOException("Cannot decompress use LZ4 method.");
+        }
+    }
+}
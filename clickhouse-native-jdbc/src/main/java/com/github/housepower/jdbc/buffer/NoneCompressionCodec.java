@@ -0,0 +1,46 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.housepower.jdbc.buffer;
+
+import java.io.IOException;
+
+public class NoneCompressionCodec implements CompressionCodec {
+
+    public static final int METHOD = 0x02;
+
+    @Override
+    public int method() {
+        return METHOD;
+    }
+
+    @Override
+    public int maxCompressedLength(int length) {
+        return length;
+    }
+
+    @Override
+    public int compress(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset) {
+        System.arraycopy(src, srcOffset, dst, dstOffset, length);
+        return length;
+    }
+
+    @Override
+    public void decompress(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset, int decompressedLength)
+        throws IOException {
+        if (length != decompressedLength) {
+            throw new IOException("Cannot decompress use None method.");
+        }
+        System.arraycopy(src, srcOffset, dst, dstOffset, length);
+    }
+}
@@ -20,11 +20,14 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 public class SocketBuffedReader implements BuffedReader {
 
     private final int capacity;
     private final byte[] buf;
+    private final ByteBuffer view;
     private final InputStream in;
 
     private int limit;
@@ -41,6 +44,7 @@ public class SocketBuffedReader implements BuffedReader {
 
         this.in = in;
         this.buf = new byte[capacity];
+        this.view = ByteBuffer.wrap(buf).order(ByteOrder.LITTLE_ENDIAN);
     }
 
     @Override
@@ -54,12 +58,17 @@ public class SocketBuffedReader implements BuffedReader {
 
     @Override
     public int readBinary(byte[] bytes) throws IOException {
-        for (int i = 0; i < bytes.length; ) {
+        return readBinary(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public int readBinary(byte[] bytes, int offset, int length) throws IOException {
+        for (int i = offset; i < offset + length; ) {
             if (!remaining() && !refill()) {
                 throw new EOFException("Attempt to read after eof.");
             }
 
-            int pending = bytes.length - i;
+            int pending = offset + length - i;
             int fillLength = Math.min(pending, limit - position);
 
             if (fillLength > 0) {
@@ -69,7 +78,22 @@ public class SocketBuffedReader implements BuffedReader {
                 this.position += fillLength;
             }
         }
-        return bytes.length;
+        return length;
+    }
+
+    @Override
+    public ByteBuffer buffered() throws IOException {
+        if (!remaining() && !refill()) {
+            throw new EOFException("Attempt to read after eof.");
+        }
+        view.limit(limit);
+        view.position(position);
+        return view;
+    }
+
+    @Override
+    public void consume(int length) {
+        position += length;
     }
 
     private boolean remaining() {
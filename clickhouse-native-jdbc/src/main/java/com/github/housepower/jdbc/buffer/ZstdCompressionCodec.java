@@ -0,0 +1,70 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.housepower.jdbc.buffer;
+
+import com.github.luben.zstd.Zstd;
+
+import java.io.IOException;
+
+/**
+ * Requires the optional {@code com.github.luben:zstd-jni} dependency, check {@link #isAvailable()} before use.
+ */
+public class ZstdCompressionCodec implements CompressionCodec {
+
+    public static final int METHOD = 0x90;
+    public static final int DEFAULT_LEVEL = 1;
+
+    private final int level;
+
+    public ZstdCompressionCodec(int level) {
+        this.level = level;
+    }
+
+    public static boolean isAvailable() {
+        try {
+            Class.forName("com.github.luben.zstd.Zstd", false, ZstdCompressionCodec.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public int method() {
+        return METHOD;
+    }
+
+    @Override
+    public int maxCompressedLength(int length) {
+        return (int) Zstd.compressBound(length);
+    }
+
+    @Override
+    public int compress(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset) throws IOException {
+        long size = Zstd.compressByteArray(dst, dstOffset, dst.length - dstOffset, src, srcOffset, length, level);
+        if (Zstd.isError(size)) {
+            throw new IOException("Cannot compress use ZSTD method: " + Zstd.getErrorName(size));
+        }
+        return (int) size;
+    }
+
+    @Override
+    public void decompress(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset, int decompressedLength)
+        throws IOException {
+        long size = Zstd.decompressByteArray(dst, dstOffset, decompressedLength, src, srcOffset, length);
+        if (Zstd.isError(size) || size != decompressedLength) {
+            throw new IOException("Cannot decompress use ZSTD method.");
+        }
+    }
+}
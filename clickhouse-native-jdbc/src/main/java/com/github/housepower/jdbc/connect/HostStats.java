@@ -0,0 +1,107 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.housepower.jdbc.connect;
+
+import com.github.housepower.jdbc.settings.ClickHouseDefines;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per host statistics shared by all connections of the JVM, the load balancing policies choose hosts by them.
+ */
+public class HostStats {
+
+    private static final ConcurrentMap<InetSocketAddress, HostStats> STATS = new ConcurrentHashMap<>();
+
+    private final InetSocketAddress host;
+    private final AtomicInteger openConnections = new AtomicInteger();
+    // queries sent and not yet ended by their EndOfStream or Exception
+    private final AtomicInteger inFlightQueries = new AtomicInteger();
+    // exponentially weighted moving average, -1 until the first sample
+    private volatile long latencyNanos = -1;
+    // failed connects or handshakes since the last successful one, and the System.nanoTime() their backoff ends
+    private final AtomicInteger failures = new AtomicInteger();
+    private volatile long backoffEndNanos;
+
+    private HostStats(InetSocketAddress host) {
+        this.host = host;
+    }
+
+    public static HostStats of(InetSocketAddress host) {
+        return STATS.computeIfAbsent(host, HostStats::new);
+    }
+
+    public InetSocketAddress host() {
+        return host;
+    }
+
+    public int openConnections() {
+        return openConnections.get();
+    }
+
+    public int inFlightQueries() {
+        return inFlightQueries.get();
+    }
+
+    public long latencyNanos() {
+        return latencyNanos;
+    }
+
+    /**
+     * Whether the host failed recently, the load balancing policies try it after the others until the
+     * backoff ends.
+     */
+    public boolean inBackoff() {
+        return failures.get() > 0 && System.nanoTime() - backoffEndNanos < 0;
+    }
+
+    void connectionOpened() {
+        openConnections.incrementAndGet();
+    }
+
+    void connectionClosed() {
+        openConnections.decrementAndGet();
+    }
+
+    void queryStarted() {
+        inFlightQueries.incrementAndGet();
+    }
+
+    void queryFinished() {
+        inFlightQueries.decrementAndGet();
+    }
+
+    void recordLatency(long nanos) {
+        long latency = latencyNanos;
+        // racy updates only lose a sample
+        latencyNanos = latency < 0 ? nanos : (latency * 7 + nanos) / 8;
+    }
+
+    void recordFailure() {
+        int failed = failures.incrementAndGet();
+        long backoff = Math.min(ClickHouseDefines.HOST_BACKOFF_MIN << Math.min(failed - 1, 16),
+                ClickHouseDefines.HOST_BACKOFF_MAX);
+        backoffEndNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoff);
+    }
+
+    void recordSuccess() {
+        failures.set(0);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.housepower.jdbc.connect;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Orders the hosts of a JDBC URL for a new physical connection, the first host is preferred and the
+ * others are tried in order when connecting fails.
+ */
+public enum LoadBalancingPolicy {
+
+    ROUND_ROBIN {
+        @Override
+        List<InetSocketAddress> prefer(List<InetSocketAddress> hosts) {
+            int start = COUNTERS.computeIfAbsent(hosts, key -> new AtomicInteger()).getAndIncrement();
+            List<InetSocketAddress> ordered = new ArrayList<>(hosts);
+            Collections.rotate(ordered, -Math.floorMod(start, hosts.size()));
+            return ordered;
+        }
+    },
+    RANDOM {
+        @Override
+        List<InetSocketAddress> prefer(List<InetSocketAddress> hosts) {
+            return shuffled(hosts);
+        }
+    },
+    /**
+     * Prefers the host with the fewest running queries of this JVM, then the one with the fewest open
+     * connections, as idle pooled connections don't load a host.
+     */
+    LEAST_IN_FLIGHT {
+        @Override
+        List<InetSocketAddress> prefer(List<InetSocketAddress> hosts) {
+            List<InetSocketAddress> ordered = shuffled(hosts);
+            ordered.sort(Comparator.comparingInt((InetSocketAddress host) -> HostStats.of(host).inFlightQueries())
+                    .thenComparingInt(host -> HostStats.of(host).openConnections()));
+            return ordered;
+        }
+    },
+    /**
+     * Prefers the host with the lowest connect and ping round trip time, hosts not measured yet come first,
+     * so a host which failed before is measured again once its backoff ends.
+     */
+    LATENCY {
+        @Override
+        List<InetSocketAddress> prefer(List<InetSocketAddress> hosts) {
+            List<InetSocketAddress> ordered = shuffled(hosts);
+            ordered.sort(Comparator.comparingLong(host -> HostStats.of(host).latencyNanos()));
+            return ordered;
+        }
+    };
+
+    private static final ConcurrentMap<List<InetSocketAddress>, AtomicInteger> COUNTERS = new ConcurrentHashMap<>();
+
+    /**
+     * The hosts in the order of the policy, those which failed recently are moved last until their backoff ends.
+     */
+    List<InetSocketAddress> order(List<InetSocketAddress> hosts) {
+        List<InetSocketAddress> ordered = prefer(hosts);
+        // stable, the policy's order is kept among the available hosts
+        ordered.sort(Comparator.comparing(host -> HostStats.of(host).inBackoff()));
+        return ordered;
+    }
+
+    abstract List<InetSocketAddress> prefer(List<InetSocketAddress> hosts);
+
+    private static List<InetSocketAddress> shuffled(List<InetSocketAddress> hosts) {
+        List<InetSocketAddress> ordered = new ArrayList<>(hosts);
+        Collections.shuffle(ordered, ThreadLocalRandom.current());
+        return ordered;
+    }
+}
@@ -14,9 +14,15 @@
 
 package com.github.housepower.jdbc.connect;
 
+import com.github.housepower.jdbc.ClickHouseSQLException;
+import com.github.housepower.jdbc.buffer.ChannelBuffedReader;
+import com.github.housepower.jdbc.buffer.ChannelBuffedWriter;
+import com.github.housepower.jdbc.buffer.ChannelSelector;
+import com.github.housepower.jdbc.buffer.CompressionCodec;
 import com.github.housepower.jdbc.buffer.SocketBuffedWriter;
 import com.github.housepower.jdbc.data.Block;
 import com.github.housepower.jdbc.misc.Validate;
+import com.github.housepower.jdbc.protocol.CancelRequest;
 import com.github.housepower.jdbc.protocol.DataRequest;
 import com.github.housepower.jdbc.protocol.DataResponse;
 import com.github.housepower.jdbc.protocol.EOFStreamResponse;
@@ -33,22 +39,41 @@ import com.github.housepower.jdbc.settings.ClickHouseConfig;
 import com.github.housepower.jdbc.settings.ClickHouseDefines;
 import com.github.housepower.jdbc.settings.SettingKey;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.SocketAddress;
+import java.nio.channels.SocketChannel;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 public class PhysicalConnection {
     private final Socket socket;
+    // closes the socket along with the resources of its transport
+    private final Closeable transport;
     private final SocketAddress address;
     private final BinarySerializer serializer;
     private final BinaryDeserializer deserializer;
+    // a failed send or receive leaves the stream in an unknown state, the connection can't be reused
+    private volatile boolean broken;
+    // a query was sent and its EndOfStream or Exception has not been received yet
+    private volatile boolean pendingResponse;
+    private volatile long lastActiveNanos = System.nanoTime();
+    // the host this connection was opened to by openPhysicalConnection
+    private HostStats hostStats;
 
     public PhysicalConnection(Socket socket, BinarySerializer serializer, BinaryDeserializer deserializer) {
+        this(socket, socket, serializer, deserializer);
+    }
+
+    public PhysicalConnection(Socket socket, Closeable transport, BinarySerializer serializer,
+                              BinaryDeserializer deserializer) {
         this.socket = socket;
+        this.transport = transport;
         this.serializer = serializer;
         this.deserializer = deserializer;
         this.address = socket.getLocalSocketAddress();
@@ -56,14 +81,19 @@ public class PhysicalConnection {
 
     public boolean ping(int soTimeout, PhysicalInfo.ServerInfo info) {
         try {
+            long start = System.nanoTime();
             sendRequest(new PingRequest());
             for (; ; ) {
                 RequestOrResponse response = receiveResponse(soTimeout, info);
                 Validate.isTrue(response instanceof ProgressResponse || response instanceof PongResponse,
                     "Expect Pong Response.");
 
-                if (response instanceof PongResponse)
+                if (response instanceof PongResponse) {
+                    if (hostStats != null) {
+                        hostStats.recordLatency(System.nanoTime() - start);
+                    }
                     return true;
+                }
             }
         } catch (SQLException e) {
             return false;
@@ -91,6 +121,20 @@ public class PhysicalConnection {
         }
     }
 
+    /**
+     * Receives the sample block of an INSERT and tells whether its columns are those of {@code expected},
+     * without decoding them.
+     */
+    public boolean receiveSampleBlock(Block expected, int soTimeout, PhysicalInfo.ServerInfo info)
+            throws SQLException {
+        while (true) {
+            RequestOrResponse response = receiveResponse(soTimeout, info, expected);
+            if (response instanceof DataResponse) {
+                return ((DataResponse) response).sameHeader();
+            }
+        }
+    }
+
     public HelloResponse receiveHello(int soTimeout, PhysicalInfo.ServerInfo info) throws SQLException {
         RequestOrResponse response = receiveResponse(soTimeout, info);
         Validate.isTrue(response instanceof HelloResponse, "Expect Hello Response.");
@@ -104,56 +148,225 @@ public class PhysicalConnection {
     }
 
     public RequestOrResponse receiveResponse(int soTimeout, PhysicalInfo.ServerInfo info) throws SQLException {
+        return receiveResponse(soTimeout, info, null);
+    }
+
+    private RequestOrResponse receiveResponse(int soTimeout, PhysicalInfo.ServerInfo info, Block expectedHeader)
+            throws SQLException {
         try {
             socket.setSoTimeout(soTimeout);
-            return RequestOrResponse.readFrom(deserializer, info);
+            RequestOrResponse response = RequestOrResponse.readFrom(deserializer, info, expectedHeader);
+            lastActiveNanos = System.nanoTime();
+            if (response instanceof EOFStreamResponse) {
+                responseEnded();
+            }
+            return response;
+        } catch (ClickHouseSQLException ex) {
+            // the server ends the stream with its exception
+            responseEnded();
+            throw ex;
         } catch (IOException ex) {
+            broken = true;
             throw new SQLException(ex.getMessage(), ex);
+        } catch (SQLException | RuntimeException ex) {
+            broken = true;
+            throw ex;
         }
     }
 
+    public boolean hasPendingResponse() {
+        return pendingResponse;
+    }
+
+    public boolean isBroken() {
+        return broken;
+    }
+
+    /**
+     * Milliseconds since the last successful exchange with the server.
+     */
+    public long idleMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastActiveNanos);
+    }
+
     public SocketAddress address() {
         return address;
     }
 
     public void disPhysicalConnection() throws SQLException {
+        broken = true;
         try {
             if (!socket.isClosed()) {
-                serializer.flushToTarget(true);
-                socket.close();
+                if (hostStats != null) {
+                    // a query abandoned with the connection is no longer in flight either
+                    if (pendingResponse) {
+                        hostStats.queryFinished();
+                    }
+                    hostStats.connectionClosed();
+                    hostStats = null;
+                }
+                try {
+                    serializer.flushToTarget(true);
+                } finally {
+                    transport.close();
+                }
             }
         } catch (IOException ex) {
             throw new SQLException(ex.getMessage(), ex);
         }
     }
 
-    private void sendQuery(String id, int stage, QueryRequest.ClientInfo info, String query,
+    /**
+     * Asks the server to stop the running query, it may be called by any thread while another one reads
+     * the response. The response still has to be read up to its EndOfStream or Exception.
+     */
+    public synchronized void sendCancel() throws SQLException {
+        if (pendingResponse) {
+            sendRequest(new CancelRequest());
+        }
+    }
+
+    private synchronized void sendQuery(String id, int stage, QueryRequest.ClientInfo info, String query,
         Map<SettingKey, Object> settings) throws SQLException {
         sendRequest(new QueryRequest(id, info, stage, true, query, settings));
+        if (!pendingResponse && hostStats != null) {
+            hostStats.queryStarted();
+        }
+        pendingResponse = true;
+    }
+
+    private void responseEnded() {
+        if (pendingResponse && hostStats != null) {
+            hostStats.queryFinished();
+        }
+        pendingResponse = false;
     }
 
-    private void sendRequest(RequestOrResponse request) throws SQLException {
+    private synchronized void sendRequest(RequestOrResponse request) throws SQLException {
         try {
             request.writeTo(serializer);
             serializer.flushToTarget(true);
+            lastActiveNanos = System.nanoTime();
         } catch (IOException ex) {
+            broken = true;
             throw new SQLException(ex.getMessage(), ex);
         }
     }
 
+    /**
+     * Opens a connection to the first host, in the order of the load balancing policy, which accepts it.
+     */
     public static PhysicalConnection openPhysicalConnection(ClickHouseConfig configure) throws SQLException {
+        return openPhysicalConnection(configure, connection -> connection);
+    }
+
+    /**
+     * Opens a connection to the first host, in the order of the load balancing policy, which accepts it
+     * and completes the handshake. A host failing the handshake, e.g. a restarting replica, is skipped
+     * like one refusing the connection.
+     */
+    public static <T> T openPhysicalConnection(ClickHouseConfig configure, Handshake<T> handshake)
+            throws SQLException {
+        CompressionCodec codec = CompressionCodec.of(configure.compressionMethod(), configure.compressionLevel());
+        List<InetSocketAddress> hosts = configure.hosts();
+        if (hosts.size() > 1) {
+            hosts = configure.loadBalancingPolicy().order(hosts);
+        }
+
+        SQLException failure = null;
+        for (InetSocketAddress host : hosts) {
+            try {
+                HostStats stats = HostStats.of(host);
+                long start = System.nanoTime();
+                PhysicalConnection connection = openPhysicalConnection(host, codec, configure);
+                stats.recordLatency(System.nanoTime() - start);
+                stats.connectionOpened();
+                connection.hostStats = stats;
+                try {
+                    T result = handshake.apply(connection);
+                    stats.recordSuccess();
+                    return result;
+                } catch (SQLException ex) {
+                    try {
+                        connection.disPhysicalConnection();
+                    } catch (SQLException ignored) {
+                        // the host is skipped anyway
+                    }
+                    throw ex;
+                }
+            } catch (IOException | SQLException ex) {
+                HostStats.of(host).recordFailure();
+                SQLException hostFailure = new SQLException(host.getHostString() + ":" + host.getPort()
+                        + ": " + ex.getMessage(), ex);
+                if (failure == null) {
+                    failure = hostFailure;
+                } else {
+                    failure.addSuppressed(hostFailure);
+                }
+            }
+        }
+        throw failure;
+    }
+
+    private static PhysicalConnection openPhysicalConnection(InetSocketAddress host, CompressionCodec codec,
+                                                             ClickHouseConfig configure) throws IOException {
+        // resolved on every connect, so that DNS changes are picked up
+        SocketAddress endpoint = new InetSocketAddress(host.getHostString(), host.getPort());
+        if (configure.nioTransport()) {
+            return openChannelConnection(endpoint, codec, configure);
+        }
+
+        Socket socket = new Socket();
         try {
-            SocketAddress endpoint = new InetSocketAddress(configure.address(), configure.port());
+            socket.setTcpNoDelay(true);
+            socket.setSendBufferSize(ClickHouseDefines.SOCKET_BUFFER_SIZE);
+            socket.setReceiveBufferSize(ClickHouseDefines.SOCKET_BUFFER_SIZE);
+            socket.connect(endpoint, configure.connectTimeout());
 
-            Socket socket = new Socket();
+            return new PhysicalConnection(socket, new BinarySerializer(new SocketBuffedWriter(socket), codec,
+                    configure.compressParallelism()),
+                    new BinaryDeserializer(socket, configure.verifyChecksum()));
+        } catch (IOException ex) {
+            socket.close();
+            throw ex;
+        }
+    }
+
+    private static PhysicalConnection openChannelConnection(SocketAddress endpoint, CompressionCodec codec,
+                                                            ClickHouseConfig configure) throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        try {
+            Socket socket = channel.socket();
             socket.setTcpNoDelay(true);
             socket.setSendBufferSize(ClickHouseDefines.SOCKET_BUFFER_SIZE);
             socket.setReceiveBufferSize(ClickHouseDefines.SOCKET_BUFFER_SIZE);
             socket.connect(endpoint, configure.connectTimeout());
+            channel.configureBlocking(false);
 
-            return new PhysicalConnection(socket, new BinarySerializer(new SocketBuffedWriter(socket), true), new BinaryDeserializer(socket));
+            ChannelSelector selector = new ChannelSelector(channel);
+            // one selector and small direct buffers per connection, see CHANNEL_BUFFER_SIZE
+            ChannelBuffedReader reader = new ChannelBuffedReader(channel, selector,
+                    ClickHouseDefines.CHANNEL_BUFFER_SIZE);
+            ChannelBuffedWriter writer = new ChannelBuffedWriter(channel, selector,
+                    ClickHouseDefines.CHANNEL_BUFFER_SIZE);
+            Closeable transport = () -> {
+                try {
+                    selector.close();
+                } finally {
+                    channel.close();
+                }
+            };
+            return new PhysicalConnection(socket, transport,
+                    new BinarySerializer(writer, codec, configure.compressParallelism()),
+                    new BinaryDeserializer(reader, configure.verifyChecksum()));
         } catch (IOException ex) {
-            throw new SQLException(ex.getMessage(), ex);
+            channel.close();
+            throw ex;
         }
     }
+
+    @FunctionalInterface
+    public interface Handshake<T> {
+        T apply(PhysicalConnection connection) throws SQLException;
+    }
 }
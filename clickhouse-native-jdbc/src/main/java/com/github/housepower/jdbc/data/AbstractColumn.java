@@ -14,6 +14,8 @@
 
 package com.github.housepower.jdbc.data;
 
+import java.nio.charset.StandardCharsets;
+
 public abstract class AbstractColumn implements IColumn {
 
     protected final String name;
@@ -49,6 +51,34 @@ public abstract class AbstractColumn implements IColumn {
         return values[idx];
     }
 
+    @Override
+    public boolean isNull(int idx) {
+        return values(idx) == null;
+    }
+
+    @Override
+    public long getLong(int idx) {
+        Object value = values(idx);
+        return value == null ? 0 : ((Number) value).longValue();
+    }
+
+    @Override
+    public double getDouble(int idx) {
+        Object value = values(idx);
+        return value == null ? 0 : ((Number) value).doubleValue();
+    }
+
+    @Override
+    public String getString(int idx) {
+        return (String) values(idx);
+    }
+
+    @Override
+    public byte[] getBytes(int idx) {
+        String value = getString(idx);
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
     @Override
     public void clear() {
         values = new Object[0];
@@ -14,6 +14,7 @@
 
 package com.github.housepower.jdbc.data;
 
+import com.github.housepower.jdbc.buffer.ByteBufferPool;
 import com.github.housepower.jdbc.connect.PhysicalInfo;
 import com.github.housepower.jdbc.data.BlockSettings.Setting;
 import com.github.housepower.jdbc.misc.Validate;
@@ -21,7 +22,9 @@ import com.github.housepower.jdbc.serializer.BinaryDeserializer;
 import com.github.housepower.jdbc.serializer.BinarySerializer;
 
 import java.io.IOException;
+import java.lang.reflect.Array;
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -41,19 +44,49 @@ public class Block {
             String type = deserializer.readStringBinary();
 
             IDataType dataType = DataTypeFactory.get(type, serverInfo);
-            Object[] arr = dataType.deserializeBinaryBulk(rows, deserializer);
-            cols[i] = ColumnFactory.createColumn(name, dataType, arr);
+            cols[i] = ColumnFactory.readColumn(name, dataType, rows, deserializer);
         }
 
         return new Block(rows, cols, info);
     }
 
+    /**
+     * Reads a block like {@link #readFrom(BinaryDeserializer, PhysicalInfo.ServerInfo)} and tells whether its
+     * columns have the names and types of {@code expected}, without creating them. The block of a cached
+     * INSERT header is checked this way, as it is not used once it matches.
+     */
+    public static boolean readHeaderMatching(BinaryDeserializer deserializer, PhysicalInfo.ServerInfo serverInfo,
+                                             Block expected) throws IOException, SQLException {
+        BlockSettings.readFrom(deserializer);
+
+        int columns = (int) deserializer.readVarInt();
+        int rows = (int) deserializer.readVarInt();
+
+        boolean same = columns == expected.columns();
+        for (int i = 0; i < columns; i++) {
+            String name = deserializer.readStringBinary();
+            String type = deserializer.readStringBinary();
+
+            IDataType dataType = DataTypeFactory.get(type, serverInfo);
+            if (rows > 0) {
+                // a header has no rows, they are only read past
+                ColumnFactory.readColumn(name, dataType, rows, deserializer);
+            }
+            same = same && expected.getByPosition(i).name().equals(name)
+                    && expected.getByPosition(i).type().name().equals(dataType.name());
+        }
+        return same;
+    }
+
     private final IColumn[] columns;
     private final BlockSettings settings;
     private final Map<String, Integer> nameWithPosition;
 
     private final Object[] objects;
     private final int[] columnIndexAdds;
+    // columnar batch pending for appendColumns, allocated on first setColumnValues
+    private Object[] columnValues;
+    private boolean[][] columnNulls;
     private int rows;
 
     public Block() {
@@ -90,6 +123,60 @@ public class Block {
         }
     }
 
+    /**
+     * Set a whole run of values of the i-th parameter column, see {@link IColumn#writeBulk(Object, boolean[])}.
+     */
+    public void setColumnValues(int i, Object values, boolean[] nulls) throws SQLException {
+        Validate.isTrue(values != null && (values instanceof Object[] || values.getClass().getComponentType() != null),
+                "Column values must be an array");
+        if (columnValues == null) {
+            columnValues = new Object[columns.length];
+            columnNulls = new boolean[columns.length][];
+        }
+        columnValues[columnIndexAdds[i]] = values;
+        columnNulls[columnIndexAdds[i]] = nulls;
+    }
+
+    /**
+     * Append the runs set by {@link #setColumnValues(int, Object, boolean[])} as rows, the columns
+     * without a run repeat their current value, e.g. the constants of the INSERT query.
+     */
+    public void appendColumns() throws SQLException {
+        Validate.isTrue(columnValues != null, "No column values are set");
+        int n = -1;
+        for (int i = 0; i < columns.length; i++) {
+            if (columnValues[i] == null) {
+                continue;
+            }
+            int length = Array.getLength(columnValues[i]);
+            Validate.isTrue(n == -1 || n == length, "Column " + columns[i].name() + " has " + length
+                    + " values, but the other columns have " + n);
+            Validate.isTrue(columnNulls[i] == null || columnNulls[i].length == length,
+                    "Null map of column " + columns[i].name() + " doesn't match its values");
+            n = length;
+        }
+        Validate.isTrue(n != -1, "No column values are set");
+
+        int i = 0;
+        try {
+            for (i = 0; i < columns.length; i++) {
+                if (columnValues[i] != null) {
+                    columns[i].writeBulk(columnValues[i], columnNulls[i]);
+                } else {
+                    for (int row = 0; row < n; row++) {
+                        columns[i].write(objects[i]);
+                    }
+                }
+            }
+            rows += n;
+        } catch (IOException | ClassCastException e) {
+            throw new SQLException("Exception processing values for column: " + columns[i].name(), e);
+        } finally {
+            Arrays.fill(columnValues, null);
+            Arrays.fill(columnNulls, null);
+        }
+    }
+
     public void setObject(int i, Object object) throws SQLException {
         objects[columnIndexAdds[i]] = object;
     }
@@ -113,6 +200,35 @@ public class Block {
         for (IColumn column : columns) {
             column.flushToSerializer(serializer, true);
         }
+        // the column buffers are copied into serializer, give them back for the next batch
+        for (IColumn column : columns) {
+            if (column.getColumnWriterBuffer() != null) {
+                column.getColumnWriterBuffer().release();
+            }
+        }
+    }
+
+    /**
+     * Drop the written rows after they are sent, the write buffers must be initialized again.
+     */
+    public void clearRows() {
+        for (IColumn column : columns) {
+            column.clear();
+        }
+        rows = 0;
+    }
+
+    /**
+     * The serialized bytes of the written rows, the separate buffers of Tuple elements are not counted.
+     */
+    public long bytes() {
+        long bytes = 0;
+        for (IColumn column : columns) {
+            if (column.getColumnWriterBuffer() != null) {
+                bytes += column.getColumnWriterBuffer().size();
+            }
+        }
+        return bytes;
     }
 
     public int rows() {
@@ -124,15 +240,20 @@ public class Block {
     }
 
     public IColumn getByPosition(int column) throws SQLException {
-        Validate.isTrue(column < columns.length,
-                "Position " + column +
-                        " is out of bound in Block.getByPosition, max position = " + (columns.length - 1));
+        // avoid building the message on hot path, it's called for every ResultSet.getXXX
+        if (column < 0 || column >= columns.length) {
+            throw new SQLException("Position " + column +
+                    " is out of bound in Block.getByPosition, max position = " + (columns.length - 1));
+        }
         return columns[column];
     }
 
     public int getPositionByName(String name) throws SQLException {
-        Validate.isTrue(nameWithPosition.containsKey(name), "Column '" + name + "' does not exist");
-        return nameWithPosition.get(name);
+        Integer position = nameWithPosition.get(name);
+        if (position == null) {
+            throw new SQLException("Column '" + name + "' does not exist");
+        }
+        return position;
     }
 
     public Object getObject(int index) throws SQLException {
@@ -142,9 +263,31 @@ public class Block {
         return objects[index];
     }
 
-    public void initWriteBuffer() {
+    /**
+     * An empty block of the same columns without write buffers, like the sample block the server sends for an INSERT.
+     */
+    public Block newSampleBlock() {
+        IColumn[] cols = new IColumn[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            cols[i] = ColumnFactory.createColumn(columns[i].name(), columns[i].type(), null);
+        }
+        return new Block(0, cols, settings);
+    }
+
+    /**
+     * An empty block of the same columns and parameter values, to be filled while this one is being sent.
+     */
+    public Block newWriteBlock(ByteBufferPool pool) {
+        Block block = newSampleBlock();
+        System.arraycopy(objects, 0, block.objects, 0, objects.length);
+        System.arraycopy(columnIndexAdds, 0, block.columnIndexAdds, 0, columnIndexAdds.length);
+        block.initWriteBuffer(pool);
+        return block;
+    }
+
+    public void initWriteBuffer(ByteBufferPool pool) {
         for (IColumn column : columns) {
-            column.setColumnWriterBuffer(new ColumnWriterBuffer());
+            column.setColumnWriterBuffer(new ColumnWriterBuffer(pool));
         }
     }
 }
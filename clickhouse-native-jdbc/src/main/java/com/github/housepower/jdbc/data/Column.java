@@ -14,6 +14,12 @@
 
 package com.github.housepower.jdbc.data;
 
+import com.github.housepower.jdbc.data.type.DataTypeFloat32;
+import com.github.housepower.jdbc.data.type.DataTypeFloat64;
+import com.github.housepower.jdbc.data.type.DataTypeInt16;
+import com.github.housepower.jdbc.data.type.DataTypeInt32;
+import com.github.housepower.jdbc.data.type.DataTypeInt64;
+import com.github.housepower.jdbc.data.type.DataTypeInt8;
 import com.github.housepower.jdbc.serializer.BinarySerializer;
 
 import java.io.IOException;
@@ -31,6 +37,30 @@ public class Column extends AbstractColumn {
         type().serializeBinary(object, buffer.column);
     }
 
+    @Override
+    public void writeBulk(Object values, boolean[] nulls) throws IOException, SQLException {
+        BinarySerializer serializer = buffer.column;
+        if (nulls != null) {
+            super.writeBulk(values, nulls);
+        } else if (values instanceof long[] && type instanceof DataTypeInt64) {
+            serializer.writeLongs((long[]) values);
+        } else if (values instanceof int[] && type instanceof DataTypeInt32) {
+            serializer.writeInts((int[]) values);
+        } else if (values instanceof short[] && type instanceof DataTypeInt16) {
+            serializer.writeShorts((short[]) values);
+        } else if (values instanceof byte[] && type instanceof DataTypeInt8) {
+            serializer.writeBytes((byte[]) values);
+        } else if (values instanceof double[] && type instanceof DataTypeFloat64) {
+            serializer.writeDoubles((double[]) values);
+        } else if (values instanceof float[] && type instanceof DataTypeFloat32) {
+            serializer.writeFloats((float[]) values);
+        } else if (values instanceof Object[]) {
+            type.serializeBinaryBulk((Object[]) values, serializer);
+        } else {
+            super.writeBulk(values, null);
+        }
+    }
+
     @Override
     public void flushToSerializer(BinarySerializer serializer, boolean now) throws IOException, SQLException {
         if (isExported()) {
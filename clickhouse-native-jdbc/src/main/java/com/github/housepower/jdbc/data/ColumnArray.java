@@ -16,9 +16,11 @@ package com.github.housepower.jdbc.data;
 
 import com.github.housepower.jdbc.ClickHouseArray;
 import com.github.housepower.jdbc.data.type.complex.DataTypeArray;
+import com.github.housepower.jdbc.misc.Validate;
 import com.github.housepower.jdbc.serializer.BinarySerializer;
 
 import java.io.IOException;
+import java.nio.LongBuffer;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -28,11 +30,100 @@ public class ColumnArray extends AbstractColumn {
     private final List<Long> offsets;
     // data represents nested column in ColumnArray
     private final IColumn data;
+    // Note: readOffsets and arrays are only for reading, row i holds the elements
+    // [readOffsets[i - 1], readOffsets[i]) of data, the arrays are created on first access
+    private final long[] readOffsets;
+    private ClickHouseArray[] arrays;
 
     public ColumnArray(String name, DataTypeArray type, Object[] values) {
         super(name, type, values);
         offsets = new ArrayList<>();
         data = ColumnFactory.createColumn(null, type.getElemDataType(), null);
+        readOffsets = null;
+    }
+
+    public ColumnArray(String name, DataTypeArray type, long[] readOffsets, IColumn data) {
+        super(name, type, null);
+        this.offsets = new ArrayList<>();
+        this.data = data;
+        this.readOffsets = readOffsets;
+    }
+
+    @Override
+    public Object values(int idx) {
+        if (readOffsets == null) {
+            return super.values(idx);
+        }
+        if (arrays == null) {
+            arrays = new ClickHouseArray[readOffsets.length];
+        }
+        ClickHouseArray array = arrays[idx];
+        if (array == null) {
+            int start = start(idx);
+            Object[] elements = new Object[(int) readOffsets[idx] - start];
+            for (int i = 0; i < elements.length; i++) {
+                elements[i] = data.values(start + i);
+            }
+            array = new ClickHouseArray(elements);
+            arrays[idx] = array;
+        }
+        return array;
+    }
+
+    @Override
+    public boolean isNull(int idx) {
+        return readOffsets == null && super.isNull(idx);
+    }
+
+    /**
+     * The elements of the array at idx as longs, without boxing them, e.g. for Array(UInt32). Only for
+     * columns read from the server.
+     */
+    public long[] getLongs(int idx) throws SQLException {
+        validateRead();
+        int start = start(idx);
+        long[] elements = new long[(int) readOffsets[idx] - start];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = data.getLong(start + i);
+        }
+        return elements;
+    }
+
+    /**
+     * The elements of the array at idx as doubles, without boxing them, e.g. for Array(Float64). Only for
+     * columns read from the server.
+     */
+    public double[] getDoubles(int idx) throws SQLException {
+        validateRead();
+        int start = start(idx);
+        double[] elements = new double[(int) readOffsets[idx] - start];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = data.getDouble(start + i);
+        }
+        return elements;
+    }
+
+    /**
+     * The nested column holding the elements of all the arrays read from the server.
+     */
+    public IColumn nested() {
+        return data;
+    }
+
+    /**
+     * A read-only view of the end offsets of the arrays in {@link #nested()}, the array at idx starts
+     * at the end offset of idx - 1, or 0 for the first one.
+     */
+    public LongBuffer offsets() {
+        return readOffsets == null ? null : LongBuffer.wrap(readOffsets).asReadOnlyBuffer();
+    }
+
+    private void validateRead() throws SQLException {
+        Validate.isTrue(readOffsets != null, "The elements of column " + name + " are only available once read");
+    }
+
+    private int start(int idx) {
+        return idx == 0 ? 0 : (int) readOffsets[idx - 1];
     }
 
     @Override
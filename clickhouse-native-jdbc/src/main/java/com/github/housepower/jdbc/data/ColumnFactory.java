@@ -14,16 +14,93 @@
 
 package com.github.housepower.jdbc.data;
 
+import com.github.housepower.jdbc.data.type.DataTypeFloat32;
+import com.github.housepower.jdbc.data.type.DataTypeFloat64;
+import com.github.housepower.jdbc.data.type.DataTypeInt16;
+import com.github.housepower.jdbc.data.type.DataTypeInt32;
+import com.github.housepower.jdbc.data.type.DataTypeInt64;
+import com.github.housepower.jdbc.data.type.DataTypeInt8;
+import com.github.housepower.jdbc.data.type.DataTypeString;
 import com.github.housepower.jdbc.data.type.complex.DataTypeArray;
+import com.github.housepower.jdbc.data.type.complex.DataTypeLowCardinality;
 import com.github.housepower.jdbc.data.type.complex.DataTypeNullable;
 import com.github.housepower.jdbc.data.type.complex.DataTypeTuple;
+import com.github.housepower.jdbc.serializer.BinaryDeserializer;
 
+import java.io.IOException;
+import java.sql.SQLException;
 import java.sql.Types;
 
 public class ColumnFactory {
 
+    /**
+     * Read a column of {@code rows} values, numeric types are kept in primitive arrays
+     * and only boxed when {@link IColumn#values(int)} is called, strings are kept in bytes
+     * and only decoded when they are read, arrays are kept as offsets into their nested column.
+     */
+    public static IColumn readColumn(String name, IDataType type, int rows, BinaryDeserializer deserializer)
+            throws IOException, SQLException {
+        // nothing at all is sent for an empty column
+        if (rows > 0) {
+            readStatePrefix(type, deserializer);
+        }
+        return readColumnData(name, type, rows, deserializer);
+    }
+
+    /**
+     * The state prefixes of all the nested LowCardinality columns come before the data of the column.
+     */
+    private static void readStatePrefix(IDataType type, BinaryDeserializer deserializer)
+            throws IOException, SQLException {
+        if (type instanceof DataTypeLowCardinality) {
+            ColumnLowCardinality.readStatePrefix(deserializer);
+        } else if (type instanceof DataTypeArray) {
+            readStatePrefix(((DataTypeArray) type).getElemDataType(), deserializer);
+        } else if (type instanceof DataTypeTuple) {
+            for (IDataType nestedType : ((DataTypeTuple) type).getNestedTypes()) {
+                readStatePrefix(nestedType, deserializer);
+            }
+        }
+    }
+
+    static IColumn readColumnData(String name, IDataType type, int rows, BinaryDeserializer deserializer)
+            throws IOException, SQLException {
+        if (type instanceof DataTypeInt8) {
+            return ColumnByte.readFrom(name, (DataTypeInt8) type, rows, deserializer);
+        } else if (type instanceof DataTypeInt16) {
+            return ColumnShort.readFrom(name, (DataTypeInt16) type, rows, deserializer);
+        } else if (type instanceof DataTypeInt32) {
+            return ColumnInt.readFrom(name, (DataTypeInt32) type, rows, deserializer);
+        } else if (type instanceof DataTypeInt64) {
+            return ColumnLong.readFrom(name, (DataTypeInt64) type, rows, deserializer);
+        } else if (type instanceof DataTypeFloat32) {
+            return ColumnFloat.readFrom(name, (DataTypeFloat32) type, rows, deserializer);
+        } else if (type instanceof DataTypeFloat64) {
+            return ColumnDouble.readFrom(name, (DataTypeFloat64) type, rows, deserializer);
+        } else if (type instanceof DataTypeString) {
+            return ColumnString.readFrom(name, (DataTypeString) type, rows, deserializer);
+        } else if (type instanceof DataTypeArray) {
+            DataTypeArray arrayType = (DataTypeArray) type;
+            long[] offsets = new long[rows];
+            deserializer.readLongs(offsets);
+            int elements = rows == 0 ? 0 : (int) offsets[rows - 1];
+            IColumn nested = readColumnData(null, arrayType.getElemDataType(), elements, deserializer);
+            return new ColumnArray(name, arrayType, offsets, nested);
+        } else if (type instanceof DataTypeLowCardinality) {
+            return ColumnLowCardinality.readFrom(name, (DataTypeLowCardinality) type, rows, deserializer);
+        } else if (type instanceof DataTypeNullable) {
+            DataTypeNullable nullableType = (DataTypeNullable) type;
+            byte[] nullMap = deserializer.readBytes(rows);
+            IColumn nested = readColumnData(null, nullableType.getNestedDataType(), rows, deserializer);
+            return new ColumnNullable(name, nullableType, nullMap, nested);
+        }
+        return createColumn(name, type, type.deserializeBinaryBulk(rows, deserializer));
+    }
+
     public static IColumn createColumn(String name, IDataType type, Object[] values) {
-        if (type.sqlTypeId() == Types.ARRAY) {
+        if (type instanceof DataTypeLowCardinality) {
+            return new ColumnLowCardinality(name, (DataTypeLowCardinality) type, values);
+        } else if (type.sqlTypeId() == Types.ARRAY) {
             return new ColumnArray(name, (DataTypeArray) type, values);
         } else if (type.nullable()) {
             return new ColumnNullable(name, (DataTypeNullable) type, values);
@@ -0,0 +1,71 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.housepower.jdbc.data;
+
+import com.github.housepower.jdbc.data.type.DataTypeFloat32;
+import com.github.housepower.jdbc.serializer.BinaryDeserializer;
+
+import java.io.IOException;
+import java.nio.FloatBuffer;
+
+public class ColumnFloat extends Column {
+
+    public static ColumnFloat readFrom(String name, DataTypeFloat32 type, int rows, BinaryDeserializer deserializer)
+            throws IOException {
+        float[] data = new float[rows];
+        deserializer.readFloats(data);
+        return new ColumnFloat(name, type, data);
+    }
+
+    // Note: data is only for reading, values are boxed on demand
+    private float[] data;
+
+    public ColumnFloat(String name, DataTypeFloat32 type, float[] data) {
+        super(name, type, null);
+        this.data = data;
+    }
+
+    @Override
+    public Object values(int idx) {
+        return data[idx];
+    }
+
+    @Override
+    public boolean isNull(int idx) {
+        return false;
+    }
+
+    @Override
+    public long getLong(int idx) {
+        return (long) data[idx];
+    }
+
+    @Override
+    public double getDouble(int idx) {
+        return data[idx];
+    }
+
+    /**
+     * A read-only view of the values of the block, without copying them.
+     */
+    public FloatBuffer floats() {
+        return FloatBuffer.wrap(data).asReadOnlyBuffer();
+    }
+
+    @Override
+    public void clear() {
+        data = new float[0];
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.housepower.jdbc.data;
+
+import com.github.housepower.jdbc.data.type.DataTypeInt64;
+import com.github.housepower.jdbc.serializer.BinaryDeserializer;
+
+import java.io.IOException;
+import java.nio.LongBuffer;
+
+public class ColumnLong extends Column {
+
+    public static ColumnLong readFrom(String name, DataTypeInt64 type, int rows, BinaryDeserializer deserializer)
+            throws IOException {
+        long[] data = new long[rows];
+        deserializer.readLongs(data);
+        return new ColumnLong(name, type, data);
+    }
+
+    // Note: data is only for reading, values are boxed on demand
+    private long[] data;
+    private final boolean isUnsigned;
+
+    public ColumnLong(String name, DataTypeInt64 type, long[] data) {
+        super(name, type, null);
+        this.data = data;
+        this.isUnsigned = type.isUnsigned();
+    }
+
+    @Override
+    public Object values(int idx) {
+        if (isUnsigned) {
+            return DataTypeInt64.toUnsignedBigInteger(data[idx]);
+        }
+        return data[idx];
+    }
+
+    @Override
+    public boolean isNull(int idx) {
+        return false;
+    }
+
+    @Override
+    public long getLong(int idx) {
+        return data[idx];
+    }
+
+    @Override
+    public double getDouble(int idx) {
+        long l = data[idx];
+        if (isUnsigned && l < 0) {
+            return DataTypeInt64.toUnsignedBigInteger(l).doubleValue();
+        }
+        return l;
+    }
+
+    /**
+     * A read-only view of the values of the block, without copying them.
+     * Unsigned values are kept in their raw two's complement bits.
+     */
+    public LongBuffer longs() {
+        return LongBuffer.wrap(data).asReadOnlyBuffer();
+    }
+
+    @Override
+    public void clear() {
+        data = new long[0];
+    }
+}
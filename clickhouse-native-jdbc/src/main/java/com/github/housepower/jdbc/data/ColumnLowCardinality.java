@@ -0,0 +1,251 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.housepower.jdbc.data;
+
+import com.github.housepower.jdbc.data.type.complex.DataTypeLowCardinality;
+import com.github.housepower.jdbc.misc.StringView;
+import com.github.housepower.jdbc.misc.Validate;
+import com.github.housepower.jdbc.serializer.BinaryDeserializer;
+import com.github.housepower.jdbc.serializer.BinarySerializer;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A LowCardinality column is sent as a dictionary of its distinct values and an index into the dictionary
+ * per row. Read columns keep both, so repeated values share one decoded value of the dictionary, e.g. one
+ * String instance. The index 0 is the null value of LowCardinality(Nullable(T)).
+ */
+public class ColumnLowCardinality extends AbstractColumn {
+
+    // SharedDictionariesWithAdditionalKeys, the only serialization version
+    private static final long KEY_VERSION = 1;
+    private static final long NEED_GLOBAL_DICTIONARY = 1L << 8;
+    private static final long HAS_ADDITIONAL_KEYS = 1L << 9;
+    private static final int INDEX_UINT8 = 0;
+    private static final int INDEX_UINT16 = 1;
+    private static final int INDEX_UINT32 = 2;
+    private static final int INDEX_UINT64 = 3;
+
+    /**
+     * The state prefix, which comes before the data of the outermost column holding the LowCardinality one.
+     */
+    public static void readStatePrefix(BinaryDeserializer deserializer) throws IOException, SQLException {
+        long version = deserializer.readLong();
+        Validate.isTrue(version == KEY_VERSION, "Unknown LowCardinality serialization version: " + version);
+    }
+
+    public static ColumnLowCardinality readFrom(String name, DataTypeLowCardinality type, int rows,
+                                                BinaryDeserializer deserializer) throws IOException, SQLException {
+        IDataType keyType = type.getKeyDataType();
+        if (rows == 0) {
+            return new ColumnLowCardinality(name, type, ColumnFactory.createColumn(null, keyType, new Object[0]),
+                    new int[0]);
+        }
+
+        long serializationType = deserializer.readLong();
+        Validate.isTrue((serializationType & NEED_GLOBAL_DICTIONARY) == 0,
+                "LowCardinality with a global dictionary is not supported");
+        IColumn dictionary;
+        if ((serializationType & HAS_ADDITIONAL_KEYS) != 0) {
+            int keys = (int) deserializer.readLong();
+            dictionary = ColumnFactory.readColumnData(null, keyType, keys, deserializer);
+        } else {
+            dictionary = ColumnFactory.createColumn(null, keyType, new Object[0]);
+        }
+
+        long indexRows = deserializer.readLong();
+        Validate.isTrue(indexRows == rows, "Expected " + rows + " LowCardinality indexes, but was " + indexRows);
+        int[] indexes = new int[rows];
+        switch ((int) (serializationType & 0xFF)) {
+            case INDEX_UINT8:
+                byte[] bytes = deserializer.readBytes(rows);
+                for (int i = 0; i < rows; i++) {
+                    indexes[i] = bytes[i] & 0xFF;
+                }
+                break;
+            case INDEX_UINT16:
+                short[] shorts = new short[rows];
+                deserializer.readShorts(shorts);
+                for (int i = 0; i < rows; i++) {
+                    indexes[i] = shorts[i] & 0xFFFF;
+                }
+                break;
+            case INDEX_UINT32:
+                deserializer.readInts(indexes);
+                break;
+            case INDEX_UINT64:
+                long[] longs = new long[rows];
+                deserializer.readLongs(longs);
+                for (int i = 0; i < rows; i++) {
+                    indexes[i] = (int) longs[i];
+                }
+                break;
+            default:
+                throw new SQLException("Unknown LowCardinality index type: " + (serializationType & 0xFF));
+        }
+        return new ColumnLowCardinality(name, type, dictionary, indexes);
+    }
+
+    private final IDataType keyType;
+    private final boolean nullableKeys;
+    // Note: dictionary and indexes are only for reading
+    private final IColumn dictionary;
+    private final int[] indexes;
+    // the dictionary of written values, the indexes are written to the column buffer
+    private final List<Object> keys = new ArrayList<>();
+    private final Map<Object, Integer> keyIndexes = new HashMap<>();
+    private int writtenRows;
+
+    public ColumnLowCardinality(String name, DataTypeLowCardinality type, Object[] values) {
+        super(name, type, values);
+        this.keyType = type.getKeyDataType();
+        this.nullableKeys = type.nullable();
+        this.dictionary = null;
+        this.indexes = null;
+        clear();
+    }
+
+    public ColumnLowCardinality(String name, DataTypeLowCardinality type, IColumn dictionary, int[] indexes) {
+        super(name, type, null);
+        this.keyType = type.getKeyDataType();
+        this.nullableKeys = type.nullable();
+        this.dictionary = dictionary;
+        this.indexes = indexes;
+        // the sample block of an INSERT is read too, and then written
+        clear();
+    }
+
+    @Override
+    public Object values(int idx) {
+        if (indexes == null) {
+            return super.values(idx);
+        }
+        return isNull(idx) ? null : dictionary.values(indexes[idx]);
+    }
+
+    @Override
+    public boolean isNull(int idx) {
+        if (indexes == null) {
+            return super.isNull(idx);
+        }
+        return nullableKeys && indexes[idx] == 0;
+    }
+
+    @Override
+    public long getLong(int idx) {
+        if (indexes == null) {
+            return super.getLong(idx);
+        }
+        return isNull(idx) ? 0 : dictionary.getLong(indexes[idx]);
+    }
+
+    @Override
+    public double getDouble(int idx) {
+        if (indexes == null) {
+            return super.getDouble(idx);
+        }
+        return isNull(idx) ? 0 : dictionary.getDouble(indexes[idx]);
+    }
+
+    @Override
+    public String getString(int idx) {
+        if (indexes == null) {
+            return super.getString(idx);
+        }
+        return isNull(idx) ? null : dictionary.getString(indexes[idx]);
+    }
+
+    @Override
+    public byte[] getBytes(int idx) {
+        if (indexes == null) {
+            return super.getBytes(idx);
+        }
+        return isNull(idx) ? null : dictionary.getBytes(indexes[idx]);
+    }
+
+    /**
+     * The distinct values read from the server, the first one stands for null in LowCardinality(Nullable(T)).
+     */
+    public IColumn dictionary() {
+        return dictionary;
+    }
+
+    /**
+     * A read-only view of the index into {@link #dictionary()} of each row.
+     */
+    public IntBuffer indexes() {
+        return indexes == null ? null : IntBuffer.wrap(indexes).asReadOnlyBuffer();
+    }
+
+    @Override
+    public void write(Object object) throws IOException, SQLException {
+        Validate.isTrue(isExported(), "LowCardinality can only be inserted as a top level column");
+        int index = 0;
+        if (object == null) {
+            Validate.isTrue(nullableKeys, "Can't insert null into column " + name + " of type " + type.name());
+        } else {
+            Object key = object instanceof StringView ? object.toString() : object;
+            Integer keyIndex = keyIndexes.get(key);
+            if (keyIndex == null) {
+                keyIndex = keys.size();
+                keys.add(key);
+                keyIndexes.put(key, keyIndex);
+            }
+            index = keyIndex;
+        }
+        buffer.column.writeInt(index);
+        writtenRows++;
+    }
+
+    @Override
+    public void flushToSerializer(BinarySerializer serializer, boolean now) throws IOException, SQLException {
+        if (isExported()) {
+            serializer.writeStringBinary(name);
+            serializer.writeStringBinary(type.name());
+        }
+        // like the other columns, nothing but the name and type is sent for an empty block
+        if (writtenRows == 0) {
+            return;
+        }
+
+        serializer.writeLong(KEY_VERSION);
+        serializer.writeLong(HAS_ADDITIONAL_KEYS | INDEX_UINT32);
+        serializer.writeLong(keys.size());
+        keyType.serializeBinaryBulk(keys.toArray(), serializer);
+        serializer.writeLong(writtenRows);
+        if (now) {
+            buffer.writeTo(serializer);
+        }
+    }
+
+    @Override
+    public void clear() {
+        keys.clear();
+        keyIndexes.clear();
+        writtenRows = 0;
+        // the first key stands for null, or is the default value which may be used by rows too
+        keys.add(keyType.defaultValue());
+        if (!nullableKeys) {
+            keyIndexes.put(keyType.defaultValue(), 0);
+        }
+    }
+}
@@ -18,6 +18,8 @@ import com.github.housepower.jdbc.data.type.complex.DataTypeNullable;
 import com.github.housepower.jdbc.serializer.BinarySerializer;
 
 import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -25,21 +27,118 @@ import java.util.List;
 public class ColumnNullable extends AbstractColumn {
 
     private final List<Byte> nullableSign;
+    // Note: nullMap is only for reading
+    private final byte[] nullMap;
     // data represents nested column in ColumnArray
     private final IColumn data;
 
     public ColumnNullable(String name, DataTypeNullable type, Object[] values) {
         super(name, type, values);
         nullableSign = new ArrayList<>();
+        nullMap = null;
         data = ColumnFactory.createColumn(null, type.getNestedDataType(), null);
     }
 
+    public ColumnNullable(String name, DataTypeNullable type, byte[] nullMap, IColumn data) {
+        super(name, type, null);
+        this.nullableSign = new ArrayList<>();
+        this.nullMap = nullMap;
+        this.data = data;
+    }
+
+    @Override
+    public Object values(int idx) {
+        if (nullMap == null) {
+            return super.values(idx);
+        }
+        return nullMap[idx] != 0 ? null : data.values(idx);
+    }
+
+    @Override
+    public boolean isNull(int idx) {
+        if (nullMap == null) {
+            return super.isNull(idx);
+        }
+        return nullMap[idx] != 0;
+    }
+
+    @Override
+    public long getLong(int idx) {
+        if (nullMap == null) {
+            return super.getLong(idx);
+        }
+        return nullMap[idx] != 0 ? 0 : data.getLong(idx);
+    }
+
+    @Override
+    public double getDouble(int idx) {
+        if (nullMap == null) {
+            return super.getDouble(idx);
+        }
+        return nullMap[idx] != 0 ? 0 : data.getDouble(idx);
+    }
+
+    @Override
+    public String getString(int idx) {
+        if (nullMap == null) {
+            return super.getString(idx);
+        }
+        return nullMap[idx] != 0 ? null : data.getString(idx);
+    }
+
+    @Override
+    public byte[] getBytes(int idx) {
+        if (nullMap == null) {
+            return super.getBytes(idx);
+        }
+        return nullMap[idx] != 0 ? null : data.getBytes(idx);
+    }
+
+    /**
+     * The nested column read from the server, null values hold the default value in it.
+     */
+    public IColumn nested() {
+        return data;
+    }
+
+    /**
+     * A read-only view of the null map read from the server, 1 marks a null value.
+     */
+    public ByteBuffer nullMap() {
+        return nullMap == null ? null : ByteBuffer.wrap(nullMap).asReadOnlyBuffer();
+    }
+
     @Override
     public void write(Object object) throws IOException, SQLException {
         nullableSign.add(object == null ? (byte) 1 : 0);
         data.write(object == null ? type.defaultValue() : object);
     }
 
+    @Override
+    public void writeBulk(Object values, boolean[] nulls) throws IOException, SQLException {
+        if (values instanceof Object[]) {
+            Object[] objects = (Object[]) values;
+            Object defaultValue = type.defaultValue();
+            for (int i = 0; i < objects.length; i++) {
+                nullableSign.add(isNull(objects, nulls, i) ? (byte) 1 : 0);
+            }
+            for (int i = 0; i < objects.length; i++) {
+                data.write(isNull(objects, nulls, i) ? defaultValue : objects[i]);
+            }
+            return;
+        }
+        // a primitive array holds some value at the null positions, it's written as is and masked by the signs
+        int length = Array.getLength(values);
+        for (int i = 0; i < length; i++) {
+            nullableSign.add(nulls != null && nulls[i] ? (byte) 1 : 0);
+        }
+        data.writeBulk(values, null);
+    }
+
+    private static boolean isNull(Object[] objects, boolean[] nulls, int i) {
+        return objects[i] == null || (nulls != null && nulls[i]);
+    }
+
     @Override
     public void flushToSerializer(BinarySerializer serializer, boolean now) throws IOException, SQLException {
         if (isExported()) {
@@ -55,6 +154,12 @@ public class ColumnNullable extends AbstractColumn {
             buffer.writeTo(serializer);
     }
 
+    @Override
+    public void clear() {
+        nullableSign.clear();
+        data.clear();
+    }
+
     @Override
     public void setColumnWriterBuffer(ColumnWriterBuffer buffer) {
         super.setColumnWriterBuffer(buffer);
@@ -0,0 +1,77 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.housepower.jdbc.data;
+
+import com.github.housepower.jdbc.data.type.DataTypeInt16;
+import com.github.housepower.jdbc.serializer.BinaryDeserializer;
+
+import java.io.IOException;
+import java.nio.ShortBuffer;
+
+public class ColumnShort extends Column {
+
+    public static ColumnShort readFrom(String name, DataTypeInt16 type, int rows, BinaryDeserializer deserializer)
+            throws IOException {
+        short[] data = new short[rows];
+        deserializer.readShorts(data);
+        return new ColumnShort(name, type, data);
+    }
+
+    // Note: data is only for reading, values are boxed on demand
+    private short[] data;
+    private final boolean isUnsigned;
+
+    public ColumnShort(String name, DataTypeInt16 type, short[] data) {
+        super(name, type, null);
+        this.data = data;
+        this.isUnsigned = type.isUnsigned();
+    }
+
+    @Override
+    public Object values(int idx) {
+        if (isUnsigned) {
+            return data[idx] & 0xFFFF;
+        }
+        return data[idx];
+    }
+
+    @Override
+    public boolean isNull(int idx) {
+        return false;
+    }
+
+    @Override
+    public long getLong(int idx) {
+        return isUnsigned ? data[idx] & 0xFFFF : data[idx];
+    }
+
+    @Override
+    public double getDouble(int idx) {
+        return getLong(idx);
+    }
+
+    /**
+     * A read-only view of the values of the block, without copying them.
+     * Unsigned values are kept in their raw two's complement bits.
+     */
+    public ShortBuffer shorts() {
+        return ShortBuffer.wrap(data).asReadOnlyBuffer();
+    }
+
+    @Override
+    public void clear() {
+        data = new short[0];
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.housepower.jdbc.data;
+
+import com.github.housepower.jdbc.data.type.DataTypeString;
+import com.github.housepower.jdbc.serializer.BinaryDeserializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class ColumnString extends Column {
+
+    public static ColumnString readFrom(String name, DataTypeString type, int rows, BinaryDeserializer deserializer)
+            throws IOException {
+        int[] offsets = new int[rows + 1];
+        byte[] data = new byte[Math.max(16, rows * 16)];
+        int position = 0;
+        for (int row = 0; row < rows; row++) {
+            int length = (int) deserializer.readVarInt();
+            if (data.length - position < length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, position + length));
+            }
+            deserializer.readBytes(data, position, length);
+            position += length;
+            offsets[row + 1] = position;
+        }
+        return new ColumnString(name, type, data, offsets);
+    }
+
+    // Note: data is only for reading, the bytes of row i are data[offsets[i], offsets[i + 1])
+    private byte[] data;
+    private int[] offsets;
+    // decoded on the first getString of each row
+    private String[] strings;
+
+    public ColumnString(String name, DataTypeString type, byte[] data, int[] offsets) {
+        super(name, type, null);
+        this.data = data;
+        this.offsets = offsets;
+    }
+
+    @Override
+    public Object values(int idx) {
+        return getString(idx);
+    }
+
+    @Override
+    public boolean isNull(int idx) {
+        return false;
+    }
+
+    @Override
+    public String getString(int idx) {
+        if (strings == null) {
+            strings = new String[offsets.length - 1];
+        }
+        String string = strings[idx];
+        if (string == null) {
+            string = new String(data, offsets[idx], offsets[idx + 1] - offsets[idx], StandardCharsets.UTF_8);
+            strings[idx] = string;
+        }
+        return string;
+    }
+
+    @Override
+    public byte[] getBytes(int idx) {
+        return Arrays.copyOfRange(data, offsets[idx], offsets[idx + 1]);
+    }
+
+    /**
+     * A read-only view of the bytes of all the values of the block, without copying them.
+     */
+    public ByteBuffer bytes() {
+        return ByteBuffer.wrap(data, 0, offsets[offsets.length - 1]).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * A read-only view of the offsets of the values in {@link #bytes()}, value i spans
+     * [offsets[i], offsets[i + 1]), so it has one more element than the rows.
+     */
+    public IntBuffer offsets() {
+        return IntBuffer.wrap(offsets).asReadOnlyBuffer();
+    }
+
+    @Override
+    public void clear() {
+        data = new byte[0];
+        offsets = new int[1];
+        strings = null;
+    }
+}
@@ -55,6 +55,7 @@ public class ColumnTuple extends AbstractColumn {
         // because they are using separate buffers.
         for (IColumn data : columndataArray) {
             data.flushToSerializer(serializer, true);
+            data.getColumnWriterBuffer().release();
         }
 
         if (now) {
@@ -67,11 +68,14 @@ public class ColumnTuple extends AbstractColumn {
         super.setColumnWriterBuffer(buffer);
 
         for (IColumn data : columndataArray) {
-            data.setColumnWriterBuffer(new ColumnWriterBuffer());
+            data.setColumnWriterBuffer(new ColumnWriterBuffer(buffer.pool()));
         }
     }
 
     @Override
     public void clear() {
+        for (IColumn data : columndataArray) {
+            data.clear();
+        }
     }
 }
@@ -15,6 +15,7 @@
 package com.github.housepower.jdbc.data;
 
 import com.github.housepower.jdbc.buffer.ByteArrayWriter;
+import com.github.housepower.jdbc.buffer.ByteBufferPool;
 import com.github.housepower.jdbc.serializer.BinarySerializer;
 import com.github.housepower.jdbc.settings.ClickHouseDefines;
 
@@ -26,21 +27,36 @@ import java.nio.ByteBuffer;
  */
 public class ColumnWriterBuffer {
 
+    private final ByteBufferPool pool;
     private final ByteArrayWriter columnWriter;
 
     public BinarySerializer column;
 
     public ColumnWriterBuffer() {
-        this.columnWriter = new ByteArrayWriter(ClickHouseDefines.COLUMN_BUFFER);
+        this(new ByteBufferPool(ClickHouseDefines.COLUMN_BUFFER, 0));
+    }
+
+    public ColumnWriterBuffer(ByteBufferPool pool) {
+        this.pool = pool;
+        this.columnWriter = new ByteArrayWriter(pool);
         this.column = new BinarySerializer(columnWriter, false);
     }
 
+    public ByteBufferPool pool() {
+        return pool;
+    }
+
     public void writeTo(BinarySerializer serializer) throws IOException {
         for (ByteBuffer buffer : columnWriter.getBufferList()) {
-            buffer.flip();
-            while (buffer.hasRemaining()) {
-                serializer.writeByte(buffer.get());
-            }
+            serializer.writeBytes(buffer.array(), buffer.arrayOffset(), buffer.position());
         }
     }
+
+    public long size() {
+        return columnWriter.size();
+    }
+
+    public void release() {
+        columnWriter.release();
+    }
 }
\ No newline at end of file
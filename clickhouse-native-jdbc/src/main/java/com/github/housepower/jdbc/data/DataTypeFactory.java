@@ -17,6 +17,7 @@ package com.github.housepower.jdbc.data;
 import com.github.housepower.jdbc.connect.PhysicalInfo;
 import com.github.housepower.jdbc.data.type.*;
 import com.github.housepower.jdbc.data.type.complex.*;
+import com.github.housepower.jdbc.misc.DateTimeHelper;
 import com.github.housepower.jdbc.misc.SQLLexer;
 import com.github.housepower.jdbc.misc.StringView;
 import com.github.housepower.jdbc.misc.Validate;
@@ -24,17 +25,64 @@ import com.github.housepower.jdbc.misc.Validate;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 public class DataTypeFactory {
 
+    // the parsed types are immutable, so blocks of the same schema share them instead of parsing the names again
+    private static final int MAX_CACHED_TYPES = 4096;
+    private static final ConcurrentMap<String, IDataType> CACHED_TYPES = new ConcurrentHashMap<>();
+    private static final AtomicLong CACHE_HITS = new AtomicLong();
+    private static final AtomicLong CACHE_MISSES = new AtomicLong();
+
     public static IDataType get(String type, PhysicalInfo.ServerInfo serverInfo) throws SQLException {
+        String key = cacheKey(type, serverInfo);
+        IDataType dataType = CACHED_TYPES.get(key);
+        if (dataType != null) {
+            CACHE_HITS.incrementAndGet();
+            return dataType;
+        }
+        CACHE_MISSES.incrementAndGet();
+
         SQLLexer lexer = new SQLLexer(0, type);
-        IDataType dataType = get(lexer, serverInfo);
+        dataType = get(lexer, serverInfo);
         Validate.isTrue(lexer.eof());
+
+        if (CACHED_TYPES.size() >= MAX_CACHED_TYPES) {
+            // the type names of the schemas in use are few, this only happens with an unbounded set of e.g. Enum8 types
+            CACHED_TYPES.clear();
+        }
+        CACHED_TYPES.putIfAbsent(key, dataType);
         return dataType;
     }
 
+    public static long cacheHits() {
+        return CACHE_HITS.get();
+    }
+
+    public static long cacheMisses() {
+        return CACHE_MISSES.get();
+    }
+
+    public static int cacheSize() {
+        return CACHED_TYPES.size();
+    }
+
+    public static void clearCache() {
+        CACHED_TYPES.clear();
+    }
+
+    // the DateTime types depend on the time zone the server info chooses, the others only on their name
+    private static String cacheKey(String type, PhysicalInfo.ServerInfo serverInfo) {
+        if (serverInfo == null || !type.contains("DateTime")) {
+            return type;
+        }
+        return type + '@' + DateTimeHelper.chooseTimeZone(serverInfo).getId();
+    }
+
     private static final Map<String, IDataType> dataTypes = initialDataTypes();
 
     public static IDataType get(SQLLexer lexer, PhysicalInfo.ServerInfo serverInfo) throws SQLException {
@@ -54,6 +102,8 @@ public class DataTypeFactory {
             return DataTypeDateTime.createDateTimeType(lexer, serverInfo);
         } else if (dataTypeName.checkEquals("DateTime64")) {
             return DataTypeDateTime64.createDateTime64Type(lexer, serverInfo);
+        } else if (dataTypeName.checkEquals("LowCardinality")) {
+            return DataTypeLowCardinality.createLowCardinalityType(lexer, serverInfo);
         } else if (dataTypeName.checkEquals("Nullable")) {
             return DataTypeNullable.createNullableType(lexer, serverInfo);
         } else if (dataTypeName.checkEquals("FixedString")) {
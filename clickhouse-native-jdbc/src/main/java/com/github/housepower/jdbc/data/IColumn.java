@@ -29,8 +29,40 @@ public interface IColumn {
 
     Object values(int idx);
 
+    /**
+     * Typed accessors, primitive columns override them to avoid boxing the values.
+     * A null value is read as 0, check it by {@link #isNull(int)}
+     */
+    boolean isNull(int idx);
+
+    long getLong(int idx);
+
+    double getDouble(int idx);
+
+    String getString(int idx);
+
+    /**
+     * The raw bytes of a String value, which are the UTF-8 encoding of {@link #getString(int)}.
+     */
+    byte[] getBytes(int idx);
+
     void write(Object object) throws IOException, SQLException;
 
+    /**
+     * Write a whole run of values at once, {@code values} is an {@code Object[]} or a primitive array
+     * matching the column type (e.g. {@code long[]} for Int64). {@code nulls} marks the null values of
+     * a Nullable column and must be null for the other columns.
+     */
+    default void writeBulk(Object values, boolean[] nulls) throws IOException, SQLException {
+        if (nulls != null || !(values instanceof Object[])) {
+            throw new SQLException(values.getClass().getSimpleName() + " can't be written to column "
+                    + name() + " of type " + type().name());
+        }
+        for (Object value : (Object[]) values) {
+            write(value);
+        }
+    }
+
     /**
      * Flush to socket output stream
      *
@@ -39,6 +39,10 @@ public class DataTypeInt16 implements IDataType {
         return name;
     }
 
+    public boolean isUnsigned() {
+        return isUnsigned;
+    }
+
     @Override
     public int sqlTypeId() {
         return Types.SMALLINT;
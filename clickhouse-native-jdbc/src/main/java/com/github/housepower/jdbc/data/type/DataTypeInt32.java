@@ -39,6 +39,10 @@ public class DataTypeInt32 implements IDataType {
         return name;
     }
 
+    public boolean isUnsigned() {
+        return isUnsigned;
+    }
+
     @Override
     public int sqlTypeId() {
         return Types.INTEGER;
@@ -41,6 +41,10 @@ public class DataTypeInt64 implements IDataType {
         return name;
     }
 
+    public boolean isUnsigned() {
+        return isUnsigned;
+    }
+
     @Override
     public int sqlTypeId() {
         return Types.BIGINT;
@@ -82,12 +86,16 @@ public class DataTypeInt64 implements IDataType {
             throws SQLException, IOException {
         long l = deserializer.readLong();
         if (isUnsigned) {
-            return new BigInteger(1, longToBytes(l));
+            return toUnsignedBigInteger(l);
         }
         return l;
     }
 
-    private byte[] longToBytes(long x) {
+    public static BigInteger toUnsignedBigInteger(long x) {
+        return new BigInteger(1, longToBytes(x));
+    }
+
+    private static byte[] longToBytes(long x) {
         ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
         buffer.putLong(x);
         return buffer.array();
@@ -39,6 +39,10 @@ public class DataTypeInt8 implements IDataType {
         return name;
     }
 
+    public boolean isUnsigned() {
+        return isUnsigned;
+    }
+
     @Override
     public int sqlTypeId() {
         return Types.TINYINT;
@@ -24,7 +24,6 @@ import com.github.housepower.jdbc.serializer.BinaryDeserializer;
 import com.github.housepower.jdbc.serializer.BinarySerializer;
 
 import java.io.IOException;
-import java.math.BigInteger;
 import java.sql.Array;
 import java.sql.SQLException;
 import java.sql.Types;
@@ -128,8 +127,8 @@ public class DataTypeArray implements IDataType {
 
     @Override
     public Object deserializeBinary(BinaryDeserializer deserializer) throws SQLException, IOException {
-        Long offset = (Long) offsetIDataType.deserializeBinary(deserializer);
-        return elemDataType.deserializeBinaryBulk(offset.intValue(), deserializer);
+        long offset = deserializer.readLong();
+        return elemDataType.deserializeBinaryBulk((int) offset, deserializer);
     }
 
     @Override
@@ -139,14 +138,14 @@ public class DataTypeArray implements IDataType {
             return data;
         }
 
-        Object[] offsets = offsetIDataType.deserializeBinaryBulk(rows, deserializer);
+        long[] offsets = new long[rows];
+        deserializer.readLongs(offsets);
         ClickHouseArray res = new ClickHouseArray(
-                elemDataType.deserializeBinaryBulk(((BigInteger) offsets[rows - 1]).intValue(), deserializer));
+                elemDataType.deserializeBinaryBulk((int) offsets[rows - 1], deserializer));
 
         for (int row = 0, lastOffset = 0; row < rows; row++) {
-            BigInteger offset = (BigInteger) offsets[row];
-            data[row] = res.slice(lastOffset, offset.intValue() - lastOffset);
-            lastOffset = offset.intValue();
+            data[row] = res.slice(lastOffset, (int) offsets[row] - lastOffset);
+            lastOffset = (int) offsets[row];
         }
         return data;
     }
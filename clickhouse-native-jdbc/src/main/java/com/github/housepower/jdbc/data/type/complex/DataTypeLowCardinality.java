@@ -0,0 +1,122 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.housepower.jdbc.data.type.complex;
+
+import com.github.housepower.jdbc.connect.PhysicalInfo;
+import com.github.housepower.jdbc.data.ColumnLowCardinality;
+import com.github.housepower.jdbc.data.DataTypeFactory;
+import com.github.housepower.jdbc.data.IDataType;
+import com.github.housepower.jdbc.misc.SQLLexer;
+import com.github.housepower.jdbc.misc.Validate;
+import com.github.housepower.jdbc.serializer.BinaryDeserializer;
+import com.github.housepower.jdbc.serializer.BinarySerializer;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * LowCardinality(T) is sent as a dictionary of the distinct values and an index into it per row,
+ * see {@link ColumnLowCardinality}.
+ */
+public class DataTypeLowCardinality implements IDataType {
+
+    public static IDataType createLowCardinalityType(SQLLexer lexer, PhysicalInfo.ServerInfo serverInfo)
+            throws SQLException {
+        Validate.isTrue(lexer.character() == '(');
+        IDataType nestedType = DataTypeFactory.get(lexer, serverInfo);
+        Validate.isTrue(lexer.character() == ')');
+        return new DataTypeLowCardinality("LowCardinality(" + nestedType.name() + ")", nestedType);
+    }
+
+    private final String name;
+    private final IDataType nestedDataType;
+
+    public DataTypeLowCardinality(String name, IDataType nestedDataType) {
+        this.name = name;
+        this.nestedDataType = nestedDataType;
+    }
+
+    public IDataType getNestedDataType() {
+        return nestedDataType;
+    }
+
+    /**
+     * The type of the dictionary, a null value of LowCardinality(Nullable(T)) is the first key of it.
+     */
+    public IDataType getKeyDataType() {
+        return nestedDataType.nullable() ? ((DataTypeNullable) nestedDataType).getNestedDataType() : nestedDataType;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public int sqlTypeId() {
+        return nestedDataType.sqlTypeId();
+    }
+
+    @Override
+    public Object defaultValue() {
+        return nestedDataType.defaultValue();
+    }
+
+    @Override
+    public Class javaTypeClass() {
+        return nestedDataType.javaTypeClass();
+    }
+
+    @Override
+    public boolean nullable() {
+        return nestedDataType.nullable();
+    }
+
+    @Override
+    public int getPrecision() {
+        return nestedDataType.getPrecision();
+    }
+
+    @Override
+    public int getScale() {
+        return nestedDataType.getScale();
+    }
+
+    @Override
+    public Object deserializeTextQuoted(SQLLexer lexer) throws SQLException {
+        return nestedDataType.deserializeTextQuoted(lexer);
+    }
+
+    @Override
+    public void serializeBinary(Object data, BinarySerializer serializer) throws SQLException, IOException {
+        throw new SQLException("LowCardinality values are only written by a whole column");
+    }
+
+    @Override
+    public Object deserializeBinary(BinaryDeserializer deserializer) throws SQLException, IOException {
+        throw new SQLException("LowCardinality values are only read by a whole column");
+    }
+
+    @Override
+    public Object[] deserializeBinaryBulk(int rows, BinaryDeserializer deserializer) throws SQLException, IOException {
+        ColumnLowCardinality column = ColumnLowCardinality.readFrom(null, this, rows, deserializer);
+        Object[] data = new Object[rows];
+        for (int row = 0; row < rows; row++) {
+            data[row] = column.values(row);
+        }
+        return data;
+    }
+}
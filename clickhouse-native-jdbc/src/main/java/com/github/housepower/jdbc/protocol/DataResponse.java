@@ -26,11 +26,23 @@ public class DataResponse extends RequestOrResponse {
 
     private final String name;
     private final Block block;
+    private final long bytes;
+    private final boolean sameHeader;
 
     public DataResponse(String name, Block block) {
+        this(name, block, 0);
+    }
+
+    public DataResponse(String name, Block block, long bytes) {
+        this(name, block, bytes, true);
+    }
+
+    private DataResponse(String name, Block block, long bytes, boolean sameHeader) {
         super(ProtocolType.RESPONSE_Data);
         this.name = name;
         this.block = block;
+        this.bytes = bytes;
+        this.sameHeader = sameHeader;
     }
 
     @Override
@@ -40,16 +52,47 @@ public class DataResponse extends RequestOrResponse {
 
     public static DataResponse readFrom(BinaryDeserializer deserializer, PhysicalInfo.ServerInfo info)
         throws IOException, SQLException {
+        return readFrom(deserializer, info, null);
+    }
+
+    /**
+     * Reads the block, or if {@code expectedHeader} is given only compares the columns with it, the response
+     * holds {@code expectedHeader} then.
+     */
+    public static DataResponse readFrom(BinaryDeserializer deserializer, PhysicalInfo.ServerInfo info,
+                                        Block expectedHeader) throws IOException, SQLException {
         String name = deserializer.readStringBinary();
 
+        long decompressedBytes = deserializer.decompressedBytes();
         deserializer.maybeEnableCompressed();
-        Block block = Block.readFrom(deserializer, info);
+        Block block = expectedHeader;
+        boolean sameHeader = true;
+        if (expectedHeader == null) {
+            block = Block.readFrom(deserializer, info);
+        } else {
+            sameHeader = Block.readHeaderMatching(deserializer, info, expectedHeader);
+        }
         deserializer.maybeDisenableCompressed();
 
-        return new DataResponse(name, block);
+        return new DataResponse(name, block, deserializer.decompressedBytes() - decompressedBytes, sameHeader);
     }
 
     public Block block() {
         return block;
     }
+
+    /**
+     * Whether the columns are those of the header expected by {@link #readFrom(BinaryDeserializer,
+     * PhysicalInfo.ServerInfo, Block)}, always true for a decoded block.
+     */
+    public boolean sameHeader() {
+        return sameHeader;
+    }
+
+    /**
+     * Uncompressed size of the block on the wire, a cheap estimate of the memory it holds once decoded.
+     */
+    public long bytes() {
+        return bytes;
+    }
 }
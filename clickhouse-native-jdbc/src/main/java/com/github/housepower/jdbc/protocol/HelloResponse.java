@@ -80,6 +80,10 @@ public class HelloResponse extends RequestOrResponse {
         long serverReversion = deserializer.readVarInt();
         String serverTimeZone = getTimeZone(deserializer, serverReversion);
         String serverDisplayName = getDisplayName(deserializer, serverReversion);
+        if (serverReversion >= ClickHouseDefines.DBMS_MIN_REVISION_WITH_VERSION_PATCH) {
+            // the patch version of the server, not used
+            deserializer.readVarInt();
+        }
 
         return new HelloResponse(name, majorVersion, minorVersion, serverReversion, serverTimeZone, serverDisplayName);
     }
@@ -0,0 +1,209 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.housepower.jdbc.protocol;
+
+import com.github.housepower.jdbc.misc.CheckedIterator;
+import com.github.housepower.jdbc.misc.CheckedRunnable;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decodes data blocks ahead of the consumer on a background thread, so that reading and decompressing
+ * the next block from the socket overlaps with the application processing the current one.
+ * <p>
+ * At most {@code maxBlocks} blocks, and no new block once {@code maxBytes} uncompressed bytes are
+ * queued, are held ahead. Like any streaming result the connection must not run another query until
+ * the iterator is exhausted, or {@link #close() closed} and the rest of the response drained by its owner.
+ */
+public class PrefetchingDataIterator implements CheckedIterator<DataResponse, SQLException>, AutoCloseable {
+
+    private static final AtomicInteger THREAD_ID = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "clickhouse-prefetch-" + THREAD_ID.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final CheckedIterator<DataResponse, SQLException> source;
+    private final int maxBlocks;
+    private final long maxBytes;
+    // stops the query, so that a read blocked on the server returns, may be null
+    private final CheckedRunnable<SQLException> cancel;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Queue<DataResponse> queue = new ArrayDeque<>();
+    private long queuedBytes;
+    private boolean finished;
+    private boolean closed;
+    private SQLException failure;
+
+    public PrefetchingDataIterator(CheckedIterator<DataResponse, SQLException> source, int maxBlocks, long maxBytes) {
+        this(source, maxBlocks, maxBytes, null);
+    }
+
+    public PrefetchingDataIterator(CheckedIterator<DataResponse, SQLException> source, int maxBlocks, long maxBytes,
+                                   CheckedRunnable<SQLException> cancel) {
+        this.source = source;
+        this.maxBlocks = maxBlocks;
+        this.maxBytes = maxBytes;
+        this.cancel = cancel;
+        EXECUTOR.execute(this::prefetch);
+    }
+
+    private void prefetch() {
+        try {
+            while (awaitCapacity() && source.hasNext()) {
+                DataResponse response = source.next();
+                lock.lock();
+                try {
+                    queue.add(response);
+                    queuedBytes += response.bytes();
+                    notEmpty.signal();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (SQLException ex) {
+            fail(ex);
+        } catch (InterruptedException ex) {
+            fail(new SQLException("Interrupted while prefetching data blocks.", ex));
+        } catch (RuntimeException ex) {
+            fail(new SQLException(ex.getMessage(), ex));
+        } finally {
+            lock.lock();
+            try {
+                finished = true;
+                notEmpty.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private boolean awaitCapacity() throws InterruptedException {
+        lock.lock();
+        try {
+            while (!closed && (queue.size() >= maxBlocks || queuedBytes >= maxBytes)) {
+                notFull.await();
+            }
+            return !closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void fail(SQLException ex) {
+        lock.lock();
+        try {
+            failure = ex;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean hasNext() throws SQLException {
+        lock.lock();
+        try {
+            while (queue.isEmpty() && !finished) {
+                notEmpty.await();
+            }
+            if (!queue.isEmpty()) {
+                return true;
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a prefetched data block.", ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public DataResponse next() throws SQLException {
+        if (!hasNext()) {
+            return null;
+        }
+        lock.lock();
+        try {
+            DataResponse response = queue.poll();
+            queuedBytes -= response.bytes();
+            notFull.signal();
+            return response;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long queuedBytes() {
+        lock.lock();
+        try {
+            return queuedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops prefetching and waits for the block being read, if any, so that the connection is no longer
+     * touched by the background thread once this returns. A read still in flight is unblocked by cancelling
+     * the query first. The unread rest of the response is left on the connection, the owner must drain it
+     * before the connection runs another query.
+     */
+    @Override
+    public void close() throws SQLException {
+        boolean reading;
+        lock.lock();
+        try {
+            closed = true;
+            queue.clear();
+            queuedBytes = 0;
+            notFull.signalAll();
+            reading = !finished;
+        } finally {
+            lock.unlock();
+        }
+        // outside of the lock, the Cancel packet may take as long as a write to the server
+        if (reading && cancel != null) {
+            cancel.run();
+        }
+
+        lock.lock();
+        try {
+            while (!finished) {
+                notEmpty.await();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while stopping the prefetching reader.", ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
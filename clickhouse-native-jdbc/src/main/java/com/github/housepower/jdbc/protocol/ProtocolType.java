@@ -18,6 +18,7 @@ public enum ProtocolType {
     REQUEST_HELLO(0),
     REQUEST_QUERY(1),
     REQUEST_DATA(2),
+    REQUEST_CANCEL(3),
     REQUEST_PING(4),
 
     RESPONSE_HELLO(0),
@@ -78,11 +78,20 @@ public class QueryRequest extends RequestOrResponse {
         private final String clientName;
         private final String clientHostname;
         private final String initialAddress;
+        private final long serverRevision;
 
         public ClientInfo(String initialAddress, String clientHostname, String clientName) {
+            this(initialAddress, clientHostname, clientName, ClickHouseDefines.CLIENT_REVISION);
+        }
+
+        /**
+         * @param serverRevision the revision of the server told in its hello, some fields are only sent to newer servers
+         */
+        public ClientInfo(String initialAddress, String clientHostname, String clientName, long serverRevision) {
             this.clientName = clientName;
             this.clientHostname = clientHostname;
             this.initialAddress = initialAddress;
+            this.serverRevision = serverRevision;
         }
 
         public void writeTo(BinarySerializer serializer) throws IOException {
@@ -100,6 +109,10 @@ public class QueryRequest extends RequestOrResponse {
             serializer.writeVarInt(ClickHouseDefines.MINOR_VERSION);
             serializer.writeVarInt(ClickHouseDefines.CLIENT_REVISION);
             serializer.writeStringBinary("");
+            if (serverRevision >= ClickHouseDefines.DBMS_MIN_REVISION_WITH_VERSION_PATCH) {
+                // the patch version of the client, the server takes the revision when it's missing
+                serializer.writeVarInt(ClickHouseDefines.CLIENT_REVISION);
+            }
         }
     }
 }
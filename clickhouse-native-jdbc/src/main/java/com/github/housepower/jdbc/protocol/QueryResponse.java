@@ -14,6 +14,7 @@
 
 package com.github.housepower.jdbc.protocol;
 
+import com.github.housepower.jdbc.ClickHouseSQLException;
 import com.github.housepower.jdbc.data.Block;
 import com.github.housepower.jdbc.misc.CheckedIterator;
 import com.github.housepower.jdbc.misc.CheckedSupplier;
@@ -24,7 +25,8 @@ import java.util.function.Supplier;
 public class QueryResponse {
     private final CheckedSupplier<RequestOrResponse, SQLException> responseSupplier;
     private Block header;
-    private boolean atEnd;
+    // read by the threads cancelling the query
+    private volatile boolean atEnd;
     // Progress
     // Totals
     // Extremes
@@ -61,6 +63,25 @@ public class QueryResponse {
         return null;
     }
 
+    public boolean isAtEnd() {
+        return atEnd;
+    }
+
+    /**
+     * Reads and discards the rest of the response, usually after the query was cancelled, so that the
+     * connection can run the next query. An exception ending the response is swallowed.
+     */
+    public void drain() throws SQLException {
+        try {
+            ensureHeaderConsumed();
+            while (consumeDataResponse() != null) {
+                // discard
+            }
+        } catch (ClickHouseSQLException ex) {
+            atEnd = true;
+        }
+    }
+
     public Supplier<CheckedIterator<DataResponse, SQLException>> data() {
         return () -> new CheckedIterator<DataResponse, SQLException>() {
             DataResponse current;
@@ -18,6 +18,7 @@ import java.io.IOException;
 import java.sql.SQLException;
 
 import com.github.housepower.jdbc.connect.PhysicalInfo;
+import com.github.housepower.jdbc.data.Block;
 import com.github.housepower.jdbc.serializer.BinarySerializer;
 import com.github.housepower.jdbc.serializer.BinaryDeserializer;
 
@@ -43,11 +44,20 @@ public abstract class RequestOrResponse {
 
     public static RequestOrResponse readFrom(BinaryDeserializer deserializer, PhysicalInfo.ServerInfo info)
         throws IOException, SQLException {
+        return readFrom(deserializer, info, null);
+    }
+
+    /**
+     * Same as {@link #readFrom(BinaryDeserializer, PhysicalInfo.ServerInfo)}, a data block is only compared
+     * with {@code expectedHeader} if given, see {@link DataResponse#sameHeader()}.
+     */
+    public static RequestOrResponse readFrom(BinaryDeserializer deserializer, PhysicalInfo.ServerInfo info,
+                                             Block expectedHeader) throws IOException, SQLException {
         switch ((int) deserializer.readVarInt()) {
             case 0:
                 return HelloResponse.readFrom(deserializer);
             case 1:
-                return DataResponse.readFrom(deserializer, info);
+                return DataResponse.readFrom(deserializer, info, expectedHeader);
             case 2:
                 throw ExceptionResponse.readExceptionFrom(deserializer);
             case 3:
@@ -21,15 +21,29 @@ import com.github.housepower.jdbc.misc.Container;
 
 import java.io.IOException;
 import java.net.Socket;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
 public class BinaryDeserializer {
 
     private final Container<BuffedReader> container;
+    private final CompressedBuffedReader compressedReader;
 
-    public BinaryDeserializer(Socket socket) throws IOException {
-        SocketBuffedReader socketReader = new SocketBuffedReader(socket);
-        container = new Container<>(socketReader, new CompressedBuffedReader(socketReader));
+    public BinaryDeserializer(Socket socket, boolean verifyChecksum) throws IOException {
+        this(new SocketBuffedReader(socket), verifyChecksum);
+    }
+
+    public BinaryDeserializer(BuffedReader reader) {
+        this(reader, true);
+    }
+
+    public BinaryDeserializer(BuffedReader reader, boolean verifyChecksum) {
+        compressedReader = new CompressedBuffedReader(reader, verifyChecksum);
+        container = new Container<>(reader, compressedReader);
+    }
+
+    public long decompressedBytes() {
+        return compressedReader.decompressedBytes();
     }
 
     public long readVarInt() throws IOException {
@@ -47,15 +61,36 @@ public class BinaryDeserializer {
     }
 
     public short readShort() throws IOException {
+        BuffedReader reader = container.get();
+        ByteBuffer buffered = reader.buffered();
+        if (buffered.remaining() >= Short.BYTES) {
+            short value = buffered.getShort(buffered.position());
+            reader.consume(Short.BYTES);
+            return value;
+        }
         return (short) ((container.get().readBinary() & 0xFF) + ((container.get().readBinary() & 0xFF) << 8));
     }
 
     public int readInt() throws IOException {
+        BuffedReader reader = container.get();
+        ByteBuffer buffered = reader.buffered();
+        if (buffered.remaining() >= Integer.BYTES) {
+            int value = buffered.getInt(buffered.position());
+            reader.consume(Integer.BYTES);
+            return value;
+        }
         return (container.get().readBinary() & 0xFF) + ((container.get().readBinary() & 0xFF) << 8)
             + ((container.get().readBinary() & 0xFF) << 16) + ((container.get().readBinary() & 0xFF) << 24);
     }
 
     public long readLong() throws IOException {
+        BuffedReader reader = container.get();
+        ByteBuffer buffered = reader.buffered();
+        if (buffered.remaining() >= Long.BYTES) {
+            long value = buffered.getLong(buffered.position());
+            reader.consume(Long.BYTES);
+            return value;
+        }
         return (container.get().readBinary() & 0xFFL) + ((container.get().readBinary() & 0xFFL) << 8)
             + ((container.get().readBinary() & 0xFFL) << 16) + ((container.get().readBinary() & 0xFFL) << 24)
             + ((container.get().readBinary() & 0xFFL) << 32) + ((container.get().readBinary() & 0xFFL) << 40)
@@ -84,21 +119,11 @@ public class BinaryDeserializer {
     }
 
     public float readFloat() throws IOException {
-        return Float.intBitsToFloat((container.get().readBinary() & 0xFF) + ((container.get().readBinary() & 0xFF) << 8)
-            + ((container.get().readBinary() & 0xFF) << 16) + ((container.get().readBinary()) << 24));
+        return Float.intBitsToFloat(readInt());
     }
 
     public double readDouble() throws IOException {
-        return Double.longBitsToDouble(
-            (container.get().readBinary() & 0xFFL)
-                + ((container.get().readBinary() & 0xFFL) << 8)
-                + ((container.get().readBinary() & 0xFFL) << 16)
-                + ((container.get().readBinary() & 0xFFL) << 24)
-                + ((container.get().readBinary() & 0xFFL) << 32)
-                + ((container.get().readBinary() & 0xFFL) << 40)
-                + ((container.get().readBinary() & 0xFFL) << 48)
-                + ((container.get().readBinary() & 0xFFL) << 56)
-        );
+        return Double.longBitsToDouble(readLong());
     }
 
     public byte[] readBytes(int size) throws IOException {
@@ -106,4 +131,82 @@ public class BinaryDeserializer {
         container.get().readBinary(bytes);
         return bytes;
     }
+
+    public void readBytes(byte[] bytes, int offset, int length) throws IOException {
+        container.get().readBinary(bytes, offset, length);
+    }
+
+    /**
+     * The bulk reads below decode whole runs of values straight from the reader's buffer, only a value
+     * which straddles two buffers (e.g. two compressed frames) is assembled by the scalar read.
+     */
+    public void readShorts(short[] data) throws IOException {
+        for (int i = 0; i < data.length; ) {
+            ByteBuffer buffered = container.get().buffered();
+            int n = Math.min(buffered.remaining() / Short.BYTES, data.length - i);
+            if (n == 0) {
+                data[i++] = readShort();
+                continue;
+            }
+            buffered.asShortBuffer().get(data, i, n);
+            container.get().consume(n * Short.BYTES);
+            i += n;
+        }
+    }
+
+    public void readInts(int[] data) throws IOException {
+        for (int i = 0; i < data.length; ) {
+            ByteBuffer buffered = container.get().buffered();
+            int n = Math.min(buffered.remaining() / Integer.BYTES, data.length - i);
+            if (n == 0) {
+                data[i++] = readInt();
+                continue;
+            }
+            buffered.asIntBuffer().get(data, i, n);
+            container.get().consume(n * Integer.BYTES);
+            i += n;
+        }
+    }
+
+    public void readLongs(long[] data) throws IOException {
+        for (int i = 0; i < data.length; ) {
+            ByteBuffer buffered = container.get().buffered();
+            int n = Math.min(buffered.remaining() / Long.BYTES, data.length - i);
+            if (n == 0) {
+                data[i++] = readLong();
+                continue;
+            }
+            buffered.asLongBuffer().get(data, i, n);
+            container.get().consume(n * Long.BYTES);
+            i += n;
+        }
+    }
+
+    public void readFloats(float[] data) throws IOException {
+        for (int i = 0; i < data.length; ) {
+            ByteBuffer buffered = container.get().buffered();
+            int n = Math.min(buffered.remaining() / Float.BYTES, data.length - i);
+            if (n == 0) {
+                data[i++] = readFloat();
+                continue;
+            }
+            buffered.asFloatBuffer().get(data, i, n);
+            container.get().consume(n * Float.BYTES);
+            i += n;
+        }
+    }
+
+    public void readDoubles(double[] data) throws IOException {
+        for (int i = 0; i < data.length; ) {
+            ByteBuffer buffered = container.get().buffered();
+            int n = Math.min(buffered.remaining() / Double.BYTES, data.length - i);
+            if (n == 0) {
+                data[i++] = readDouble();
+                continue;
+            }
+            buffered.asDoubleBuffer().get(data, i, n);
+            container.get().consume(n * Double.BYTES);
+            i += n;
+        }
+    }
 }
@@ -16,23 +16,44 @@ package com.github.housepower.jdbc.serializer;
 
 import com.github.housepower.jdbc.buffer.BuffedWriter;
 import com.github.housepower.jdbc.buffer.CompressedBuffedWriter;
+import com.github.housepower.jdbc.buffer.CompressionCodec;
+import com.github.housepower.jdbc.buffer.LZ4CompressionCodec;
 import com.github.housepower.jdbc.misc.Container;
 import com.github.housepower.jdbc.misc.StringView;
 import com.github.housepower.jdbc.settings.ClickHouseDefines;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 
 public class BinarySerializer {
     private final Container<BuffedWriter> container;
     private final boolean enableCompress;
+    // little-endian staging area of the bulk writes, allocated on first use
+    private ByteBuffer scratch;
 
     public BinarySerializer(BuffedWriter writer, boolean enableCompress) {
-        this.enableCompress = enableCompress;
+        this(writer, enableCompress ? new LZ4CompressionCodec() : null);
+    }
+
+    /**
+     * @param codec compresses the data blocks, null to disable compression
+     */
+    public BinarySerializer(BuffedWriter writer, CompressionCodec codec) {
+        this(writer, codec, 0);
+    }
+
+    /**
+     * @param codec               compresses the data blocks, null to disable compression
+     * @param compressParallelism the number of frames compressed in parallel, see {@link CompressedBuffedWriter}
+     */
+    public BinarySerializer(BuffedWriter writer, CompressionCodec codec, int compressParallelism) {
+        this.enableCompress = codec != null;
         BuffedWriter compressBuffer = null;
         if (enableCompress) {
-            compressBuffer = new CompressedBuffedWriter(ClickHouseDefines.SOCKET_BUFFER_SIZE, writer);
+            compressBuffer = new CompressedBuffedWriter(ClickHouseDefines.SOCKET_BUFFER_SIZE, writer, codec,
+                    compressParallelism);
         }
         container = new Container<>(writer, compressBuffer);
     }
@@ -133,4 +154,69 @@ public class BinarySerializer {
     public void writeBytes(byte[] bytes) throws IOException {
         container.get().writeBinary(bytes);
     }
+
+    public void writeBytes(byte[] bytes, int offset, int length) throws IOException {
+        container.get().writeBinary(bytes, offset, length);
+    }
+
+    /**
+     * The bulk writes below encode whole runs of values into a scratch buffer and hand it to the writer
+     * at once, instead of writing every value byte by byte.
+     */
+    public void writeShorts(short[] data) throws IOException {
+        for (int i = 0; i < data.length; ) {
+            ByteBuffer buffer = scratch();
+            int n = Math.min(buffer.capacity() / Short.BYTES, data.length - i);
+            buffer.asShortBuffer().put(data, i, n);
+            writeBytes(buffer.array(), 0, n * Short.BYTES);
+            i += n;
+        }
+    }
+
+    public void writeInts(int[] data) throws IOException {
+        for (int i = 0; i < data.length; ) {
+            ByteBuffer buffer = scratch();
+            int n = Math.min(buffer.capacity() / Integer.BYTES, data.length - i);
+            buffer.asIntBuffer().put(data, i, n);
+            writeBytes(buffer.array(), 0, n * Integer.BYTES);
+            i += n;
+        }
+    }
+
+    public void writeLongs(long[] data) throws IOException {
+        for (int i = 0; i < data.length; ) {
+            ByteBuffer buffer = scratch();
+            int n = Math.min(buffer.capacity() / Long.BYTES, data.length - i);
+            buffer.asLongBuffer().put(data, i, n);
+            writeBytes(buffer.array(), 0, n * Long.BYTES);
+            i += n;
+        }
+    }
+
+    public void writeFloats(float[] data) throws IOException {
+        for (int i = 0; i < data.length; ) {
+            ByteBuffer buffer = scratch();
+            int n = Math.min(buffer.capacity() / Float.BYTES, data.length - i);
+            buffer.asFloatBuffer().put(data, i, n);
+            writeBytes(buffer.array(), 0, n * Float.BYTES);
+            i += n;
+        }
+    }
+
+    public void writeDoubles(double[] data) throws IOException {
+        for (int i = 0; i < data.length; ) {
+            ByteBuffer buffer = scratch();
+            int n = Math.min(buffer.capacity() / Double.BYTES, data.length - i);
+            buffer.asDoubleBuffer().put(data, i, n);
+            writeBytes(buffer.array(), 0, n * Double.BYTES);
+            i += n;
+        }
+    }
+
+    private ByteBuffer scratch() {
+        if (scratch == null) {
+            scratch = ByteBuffer.allocate(8192).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return scratch;
+    }
 }
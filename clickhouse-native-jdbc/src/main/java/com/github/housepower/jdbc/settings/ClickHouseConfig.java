@@ -14,12 +14,19 @@
 
 package com.github.housepower.jdbc.settings;
 
+import com.github.housepower.jdbc.buffer.ZstdCompressionCodec;
+import com.github.housepower.jdbc.connect.LoadBalancingPolicy;
 import com.github.housepower.jdbc.misc.Validate;
 
+import java.net.InetSocketAddress;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 import java.util.StringTokenizer;
@@ -30,6 +37,8 @@ public class ClickHouseConfig {
 
     public static final Pattern DB_PATH_PATTERN = Pattern.compile("/([a-zA-Z0-9_]+)");
     public static final Pattern HOST_PORT_PATH_PATTERN = Pattern.compile("//(?<host>[^/:\\s]+)(:(?<port>\\d+))?");
+    public static final Pattern HOSTS_PATH_PATTERN = Pattern.compile("//(?<hosts>[^/?\\s]+)");
+    public static final Pattern HOST_PORT_PATTERN = Pattern.compile("(?<host>[^:\\s]+)(:(?<port>\\d+))?");
 
     private final int port;
     private final String address;
@@ -38,10 +47,33 @@ public class ClickHouseConfig {
     private final String password;
     private int soTimeout;
     private final int connectTimeout;
+    private final int columnBufferSize;
+    private final long columnBufferPoolBytes;
+    private final boolean verifyChecksum;
+    private final boolean nioTransport;
+    private final int prefetchBlocks;
+    private final long prefetchMaxBytes;
+    private final int healthCheckIdleTime;
+    private final int poolMaxSize;
+    private final int poolMaxWait;
+    private final int poolMaxIdleTime;
+    private final List<InetSocketAddress> hosts;
+    private final LoadBalancingPolicy loadBalancingPolicy;
+    private final long insertBlockRows;
+    private final long insertBlockBytes;
+    private final int compressParallelism;
+    private final int insertAsyncBlocks;
+    private final int sampleBlockCacheTtl;
     private final Map<SettingKey, Object> settings;
 
     private ClickHouseConfig(int port, String address, String database, String username, String password,
-                             int soTimeout, int connectTimeout, Map<SettingKey, Object> settings) {
+                             int soTimeout, int connectTimeout, int columnBufferSize, long columnBufferPoolBytes,
+                             boolean verifyChecksum, boolean nioTransport, int prefetchBlocks,
+                             long prefetchMaxBytes, int healthCheckIdleTime, int poolMaxSize, int poolMaxWait,
+                             int poolMaxIdleTime, List<InetSocketAddress> hosts,
+                             LoadBalancingPolicy loadBalancingPolicy, long insertBlockRows, long insertBlockBytes,
+                             int compressParallelism, int insertAsyncBlocks, int sampleBlockCacheTtl,
+                             Map<SettingKey, Object> settings) {
         this.port = port;
         this.address = address;
         this.database = database;
@@ -49,6 +81,23 @@ public class ClickHouseConfig {
         this.password = password;
         this.soTimeout = soTimeout;
         this.connectTimeout = connectTimeout;
+        this.columnBufferSize = columnBufferSize;
+        this.columnBufferPoolBytes = columnBufferPoolBytes;
+        this.verifyChecksum = verifyChecksum;
+        this.nioTransport = nioTransport;
+        this.prefetchBlocks = prefetchBlocks;
+        this.prefetchMaxBytes = prefetchMaxBytes;
+        this.healthCheckIdleTime = healthCheckIdleTime;
+        this.poolMaxSize = poolMaxSize;
+        this.poolMaxWait = poolMaxWait;
+        this.poolMaxIdleTime = poolMaxIdleTime;
+        this.hosts = hosts;
+        this.loadBalancingPolicy = loadBalancingPolicy;
+        this.insertBlockRows = insertBlockRows;
+        this.insertBlockBytes = insertBlockBytes;
+        this.compressParallelism = compressParallelism;
+        this.insertAsyncBlocks = insertAsyncBlocks;
+        this.sampleBlockCacheTtl = sampleBlockCacheTtl;
         this.settings = settings;
     }
 
@@ -67,6 +116,61 @@ public class ClickHouseConfig {
         // https://docs.oracle.com/javase/7/docs/api/java/net/Socket.html#connect(java.net.SocketAddress,%20int)
         this.soTimeout = (obj = settings.remove(SettingKey.query_timeout)) == null ? 0 : (int) obj * 1000;
         this.connectTimeout = (obj = settings.remove(SettingKey.connect_timeout)) == null ? 0 : (int) obj * 1000;
+        this.columnBufferSize = (obj = settings.remove(SettingKey.column_buffer_size)) == null ?
+                ClickHouseDefines.COLUMN_BUFFER : (int) obj;
+        this.columnBufferPoolBytes = (obj = settings.remove(SettingKey.column_buffer_pool_bytes)) == null ?
+                ClickHouseDefines.COLUMN_BUFFER_POOL_BYTES : (long) obj;
+        this.verifyChecksum = (obj = settings.remove(SettingKey.verify_checksum)) == null || (boolean) obj;
+        String transport = (obj = settings.remove(SettingKey.transport)) == null ?
+                "socket" : String.valueOf(obj).toLowerCase(Locale.ROOT);
+        Validate.isTrue(transport.equals("socket") || transport.equals("nio"),
+                "Unknown transport: " + obj + ", expected socket or nio.");
+        this.nioTransport = transport.equals("nio");
+        this.prefetchBlocks = (obj = settings.remove(SettingKey.prefetch_blocks)) == null ? 0 : (int) obj;
+        this.prefetchMaxBytes = (obj = settings.remove(SettingKey.prefetch_max_bytes)) == null ?
+                ClickHouseDefines.PREFETCH_MAX_BYTES : (long) obj;
+        this.healthCheckIdleTime = (obj = settings.remove(SettingKey.health_check_idle_time)) == null ? 0 : (int) obj;
+        this.poolMaxSize = (obj = settings.remove(SettingKey.pool_max_size)) == null ?
+                ClickHouseDefines.POOL_MAX_SIZE : (int) obj;
+        this.poolMaxWait = (obj = settings.remove(SettingKey.pool_max_wait)) == null ?
+                ClickHouseDefines.POOL_MAX_WAIT : (int) obj;
+        this.poolMaxIdleTime = (obj = settings.remove(SettingKey.pool_max_idle_time)) == null ?
+                ClickHouseDefines.POOL_MAX_IDLE_TIME : (int) obj;
+        this.hosts = parseHosts(url, address, port);
+        String policy = (obj = settings.remove(SettingKey.load_balancing_policy)) == null ?
+                "round_robin" : String.valueOf(obj);
+        this.loadBalancingPolicy = parseLoadBalancingPolicy(policy);
+        // max_insert_block_size is kept in settings, the server splits the inserted blocks by it too
+        Object maxInsertBlockSize = settings.get(SettingKey.max_insert_block_size);
+        this.insertBlockRows = (obj = settings.remove(SettingKey.insert_block_rows)) != null ? (long) obj :
+                maxInsertBlockSize != null ? (long) maxInsertBlockSize : ClickHouseDefines.INSERT_BLOCK_ROWS;
+        this.insertBlockBytes = (obj = settings.remove(SettingKey.insert_block_bytes)) == null ?
+                ClickHouseDefines.INSERT_BLOCK_BYTES : (long) obj;
+        this.compressParallelism = (obj = settings.remove(SettingKey.compress_parallelism)) == null ? 0 : (int) obj;
+        this.insertAsyncBlocks = (obj = settings.remove(SettingKey.insert_async_blocks)) == null ? 0 : (int) obj;
+        this.sampleBlockCacheTtl = (obj = settings.remove(SettingKey.sample_block_cache_ttl)) == null ? 0 : (int) obj;
+        // network_compression_method is kept in settings, the server compresses its responses with it too
+        if ((obj = settings.get(SettingKey.network_compression_method)) != null) {
+            String method = String.valueOf(obj).toLowerCase(Locale.ROOT);
+            Validate.isTrue(method.equals("lz4") || method.equals("zstd") || method.equals("none"),
+                    "Unknown network_compression_method: " + obj + ", expected LZ4, ZSTD or NONE.");
+            Validate.isTrue(!method.equals("zstd") || ZstdCompressionCodec.isAvailable(),
+                    "network_compression_method ZSTD requires com.github.luben:zstd-jni in the classpath.");
+            settings.put(SettingKey.network_compression_method, method);
+        }
+        Validate.isTrue(columnBufferSize > 0, "column_buffer_size must be positive.");
+        Validate.isTrue(columnBufferPoolBytes >= 0, "column_buffer_pool_bytes must not be negative.");
+        Validate.isTrue(prefetchBlocks >= 0, "prefetch_blocks must not be negative.");
+        Validate.isTrue(prefetchMaxBytes > 0, "prefetch_max_bytes must be positive.");
+        Validate.isTrue(healthCheckIdleTime >= 0, "health_check_idle_time must not be negative.");
+        Validate.isTrue(poolMaxSize > 0, "pool_max_size must be positive.");
+        Validate.isTrue(poolMaxWait >= 0, "pool_max_wait must not be negative.");
+        Validate.isTrue(poolMaxIdleTime >= 0, "pool_max_idle_time must not be negative.");
+        Validate.isTrue(insertBlockRows >= 0, "insert_block_rows must not be negative.");
+        Validate.isTrue(insertBlockBytes >= 0, "insert_block_bytes must not be negative.");
+        Validate.isTrue(compressParallelism >= 0, "compress_parallelism must not be negative.");
+        Validate.isTrue(insertAsyncBlocks >= 0, "insert_async_blocks must not be negative.");
+        Validate.isTrue(sampleBlockCacheTtl >= 0, "sample_block_cache_ttl must not be negative.");
     }
 
     public int port() {
@@ -97,6 +201,101 @@ public class ClickHouseConfig {
         return this.connectTimeout;
     }
 
+    public int columnBufferSize() {
+        return this.columnBufferSize;
+    }
+
+    public long columnBufferPoolBytes() {
+        return this.columnBufferPoolBytes;
+    }
+
+    public boolean verifyChecksum() {
+        return this.verifyChecksum;
+    }
+
+    public boolean nioTransport() {
+        return this.nioTransport;
+    }
+
+    public int prefetchBlocks() {
+        return this.prefetchBlocks;
+    }
+
+    public long prefetchMaxBytes() {
+        return this.prefetchMaxBytes;
+    }
+
+    public int healthCheckIdleTime() {
+        return this.healthCheckIdleTime;
+    }
+
+    public int poolMaxSize() {
+        return this.poolMaxSize;
+    }
+
+    public int poolMaxWait() {
+        return this.poolMaxWait;
+    }
+
+    public int poolMaxIdleTime() {
+        return this.poolMaxIdleTime;
+    }
+
+    /**
+     * The hosts of the JDBC URL, a single URL host is the same as {@link #address()} and {@link #port()}.
+     */
+    public List<InetSocketAddress> hosts() {
+        return this.hosts;
+    }
+
+    public LoadBalancingPolicy loadBalancingPolicy() {
+        return this.loadBalancingPolicy;
+    }
+
+    /**
+     * The rows after which a batch insert sends the accumulated block to the server, 0 to send it all at once.
+     */
+    public long insertBlockRows() {
+        return this.insertBlockRows;
+    }
+
+    /**
+     * The serialized bytes after which a batch insert sends the accumulated block to the server, 0 for no limit.
+     */
+    public long insertBlockBytes() {
+        return this.insertBlockBytes;
+    }
+
+    public int compressParallelism() {
+        return this.compressParallelism;
+    }
+
+    /**
+     * The number of full insert blocks which may be queued for a background sender, 0 sends them on the
+     * thread calling addBatch.
+     */
+    public int insertAsyncBlocks() {
+        return this.insertAsyncBlocks;
+    }
+
+    /**
+     * The time in milliseconds the columns of an INSERT target are reused without waiting for the server
+     * to send them, 0 waits for them on every INSERT.
+     */
+    public int sampleBlockCacheTtl() {
+        return this.sampleBlockCacheTtl;
+    }
+
+    public String compressionMethod() {
+        Object method = settings.get(SettingKey.network_compression_method);
+        return method == null ? "lz4" : String.valueOf(method);
+    }
+
+    public int compressionLevel() {
+        Object level = settings.get(SettingKey.network_zstd_compression_level);
+        return level == null ? ZstdCompressionCodec.DEFAULT_LEVEL : ((Number) level).intValue();
+    }
+
     public Map<SettingKey, Object> settings() {
         return settings;
     }
@@ -167,6 +366,33 @@ public class ClickHouseConfig {
         return host;
     }
 
+    private List<InetSocketAddress> parseHosts(String jdbcUrl, String address, int port) throws SQLException {
+        Matcher m = HOSTS_PATH_PATTERN.matcher(jdbcUrl);
+        String[] hostList = m.find() ? m.group("hosts").split(",") : new String[0];
+        if (hostList.length <= 1) {
+            return Collections.singletonList(InetSocketAddress.createUnresolved(address, port));
+        }
+
+        List<InetSocketAddress> hosts = new ArrayList<>(hostList.length);
+        for (String host : hostList) {
+            Matcher hostPort = HOST_PORT_PATTERN.matcher(host.trim());
+            Validate.isTrue(hostPort.matches(), "ClickHouse JDBC URL host '" + host + "' Error, Expected host[:port].");
+            int hostPortNumber = hostPort.group("port") == null ? 9000 : Integer.parseInt(hostPort.group("port"));
+            hosts.add(InetSocketAddress.createUnresolved(hostPort.group("host"), hostPortNumber));
+        }
+        return Collections.unmodifiableList(hosts);
+    }
+
+    private LoadBalancingPolicy parseLoadBalancingPolicy(String policy) throws SQLException {
+        for (LoadBalancingPolicy value : LoadBalancingPolicy.values()) {
+            if (value.name().equalsIgnoreCase(policy)) {
+                return value;
+            }
+        }
+        throw new SQLException("Unknown load_balancing_policy: " + policy
+                + ", expected round_robin, random, least_in_flight or latency.");
+    }
+
     private int parsePort(String jdbcUrl) throws URISyntaxException {
         String uriStr = jdbcUrl.substring(5);
         URI uri = new URI(uriStr);
@@ -204,6 +430,10 @@ public class ClickHouseConfig {
 
     public ClickHouseConfig copy() {
         return new ClickHouseConfig(port, address, database, username, password,
-                soTimeout, connectTimeout, new HashMap<>(this.settings));
+                soTimeout, connectTimeout, columnBufferSize, columnBufferPoolBytes,
+                verifyChecksum, nioTransport, prefetchBlocks, prefetchMaxBytes,
+                healthCheckIdleTime, poolMaxSize, poolMaxWait, poolMaxIdleTime,
+                hosts, loadBalancingPolicy, insertBlockRows, insertBlockBytes,
+                compressParallelism, insertAsyncBlocks, sampleBlockCacheTtl, new HashMap<>(this.settings));
     }
 }
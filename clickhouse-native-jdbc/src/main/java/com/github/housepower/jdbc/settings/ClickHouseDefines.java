@@ -20,12 +20,31 @@ public class ClickHouseDefines {
 
     public static final int MAJOR_VERSION = 1;
     public static final int MINOR_VERSION = 1;
-    public static final int CLIENT_REVISION = 54380;
+    public static final int CLIENT_REVISION = 54405;
     public static final int DBMS_MIN_REVISION_WITH_SERVER_TIMEZONE = 54058;
     public static final int DBMS_MIN_REVISION_WITH_SERVER_DISPLAY_NAME = 54372;
+    public static final int DBMS_MIN_REVISION_WITH_VERSION_PATCH = 54401;
+    // the server sends LowCardinality columns as they are, rather than converting them to their nested type
+    public static final int DBMS_MIN_REVISION_WITH_LOW_CARDINALITY_TYPE = 54405;
 
     public static final int MAX_BLOCK_SIZE = 1024 * 1024 * 10;
     public static int SOCKET_BUFFER_SIZE = 1024 * 1024;
+    // the direct buffers of the nio transport, the kernel's socket buffers hold the rest
+    public static final int CHANNEL_BUFFER_SIZE = 64 * 1024;
 
     public static int COLUMN_BUFFER = 1024 * 1024;
+    // idle buffers are kept for the connection's lifetime, enough for a block of 64 columns with COLUMN_BUFFER
+    public static final long COLUMN_BUFFER_POOL_BYTES = 64L * 1024 * 1024;
+    public static final long PREFETCH_MAX_BYTES = 64L * 1024 * 1024;
+
+    public static final int POOL_MAX_SIZE = 10;
+    public static final int POOL_MAX_WAIT = 30 * 1000;
+    public static final int POOL_MAX_IDLE_TIME = 10 * 60 * 1000;
+
+    // a host failing to connect is tried last for this long, doubled on each further failure up to the max
+    public static final long HOST_BACKOFF_MIN = 1000;
+    public static final long HOST_BACKOFF_MAX = 60 * 1000;
+
+    public static final long INSERT_BLOCK_ROWS = 1024 * 1024;
+    public static final long INSERT_BLOCK_BYTES = 128L * 1024 * 1024;
 }
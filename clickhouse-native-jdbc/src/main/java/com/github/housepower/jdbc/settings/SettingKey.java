@@ -65,6 +65,7 @@ public enum SettingKey {
     force_primary_key(ISettingType.Boolean, "Throw an exception if there is primary key in a table, and it is not used."),
     mark_cache_min_lifetime(ISettingType.Int64, "If the maximum size of mark_cache is exceeded, delete only records older than mark_cache_min_lifetime seconds."),
     max_streams_to_max_threads_ratio(ISettingType.Float, "Allows you to use more sources than the number of threads - to more evenly distribute work across threads. It is assumed that this is a temporary solution, since it will be possible in the future to make the number of sources equal to the number of threads, but for each source to dynamically select available work for itself."),
+    network_compression_method(ISettingType.String, "Allows you to select the method of data compression between client and server, LZ4, ZSTD or NONE."),
     network_zstd_compression_level(ISettingType.Int64, "Allows you to select the level of ZSTD compression."),
     priority(ISettingType.Int64, "Priority of the query. 1 - the highest, higher value - lower priority; 0 - do not use priorities."),
     log_queries(ISettingType.Boolean, "Log requests and write the log to the system table."),
@@ -146,7 +147,23 @@ public enum SettingKey {
     address(ISettingType.String, ""),
     database(ISettingType.String, ""),
     password(ISettingType.String, ""),
-    query_timeout(ISettingType.Seconds, "");
+    query_timeout(ISettingType.Seconds, ""),
+    column_buffer_size(ISettingType.Int32, "The size in bytes of each buffer holding serialized insert columns."),
+    column_buffer_pool_bytes(ISettingType.Int64, "The maximum bytes of idle column buffers kept by a connection for reuse by later inserts, 0 disables pooling."),
+    verify_checksum(ISettingType.Boolean, "Whether to verify the checksum of compressed data received from the server, it may be disabled on trusted networks."),
+    transport(ISettingType.String, "The transport of connections, socket (blocking java.net.Socket, default) or nio (non-blocking SocketChannel)."),
+    prefetch_blocks(ISettingType.Int32, "The number of data blocks decoded ahead by a background reader while the result set consumes the current one, 0 disables prefetching."),
+    prefetch_max_bytes(ISettingType.Int64, "The maximum uncompressed bytes of data blocks buffered by the prefetching reader."),
+    health_check_idle_time(ISettingType.Int32, "The idle time in milliseconds after which a connection is pinged before the next query, 0 pings before every query. Broken connections are detected on use either way."),
+    pool_max_size(ISettingType.Int32, "The maximum number of physical connections opened by a ClickHousePooledDataSource."),
+    pool_max_wait(ISettingType.Int32, "The maximum time in milliseconds to wait for a free connection of a ClickHousePooledDataSource."),
+    pool_max_idle_time(ISettingType.Int32, "The time in milliseconds after which an idle pooled connection is closed instead of reused."),
+    load_balancing_policy(ISettingType.String, "How a host of a multi-host URL is chosen for a new connection, round_robin (default), random, least_in_flight or latency. Other hosts are tried in turn if connecting fails."),
+    insert_block_rows(ISettingType.Int64, "The rows after which a batch insert sends the accumulated block to the server and keeps the INSERT open, defaults to max_insert_block_size, 0 sends the whole batch on executeBatch."),
+    insert_block_bytes(ISettingType.Int64, "The serialized bytes after which a batch insert sends the accumulated block to the server and keeps the INSERT open, 0 for no limit."),
+    compress_parallelism(ISettingType.Int32, "The number of frames of the sent data compressed at the same time in the common ForkJoinPool, 0 or 1 compresses them on the calling thread."),
+    insert_async_blocks(ISettingType.Int32, "The number of full insert blocks (see insert_block_rows) queued for a background sender while the next one is filled, 0 sends them on the calling thread. A send failure is thrown by the next addBatch, executeBatch or close."),
+    sample_block_cache_ttl(ISettingType.Int32, "The time in milliseconds the columns the server sent for an INSERT are reused by the next INSERTs into the same table, which then don't wait for them before sending data. A changed table fails such an INSERT once and is fetched again, 0 disables the cache.");
 
     private final String describe;
     private final ISettingType type;
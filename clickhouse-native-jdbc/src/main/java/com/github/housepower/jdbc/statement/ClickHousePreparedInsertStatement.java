@@ -18,18 +18,42 @@ import com.github.housepower.jdbc.ClickHouseConnection;
 import com.github.housepower.jdbc.connect.PhysicalInfo;
 import com.github.housepower.jdbc.data.Block;
 import com.github.housepower.jdbc.misc.Validate;
+import com.github.housepower.jdbc.settings.ClickHouseConfig;
 import com.github.housepower.jdbc.stream.ValuesWithParametersInputFormat;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ClickHousePreparedInsertStatement extends AbstractPreparedStatement {
 
+    private static final AtomicInteger THREAD_ID = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "clickhouse-insert-" + THREAD_ID.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final int posOfData;
     private final String fullQuery;
     private final String insertQuery;
     private boolean blockInit;
+    // rows of the batch already sent to the server by flushBlockIfFull
+    private int sentRows;
+    // insert_async_blocks: the filled blocks are sent one after another by sending, while the
+    // application fills one of the spare blocks
+    private CompletableFuture<Void> sending = CompletableFuture.completedFuture(null);
+    private final BlockingQueue<Block> spareBlocks = new LinkedBlockingQueue<>();
+    private int createdBlocks;
+    // a block of the batch failed to be sent, the INSERT was aborted and the batch fails on executeBatch
+    private volatile SQLException sendFailure;
 
     public ClickHousePreparedInsertStatement(int posOfData,
                                              String fullQuery,
@@ -49,7 +73,7 @@ public class ClickHousePreparedInsertStatement extends AbstractPreparedStatement
             return;
         }
         this.block = getSampleBlock(insertQuery);
-        this.block.initWriteBuffer();
+        this.block.initWriteBuffer(connection.bufferPool());
         this.blockInit = true;
         new ValuesWithParametersInputFormat(fullQuery, posOfData).fillBlock(block);
     }
@@ -62,9 +86,10 @@ public class ClickHousePreparedInsertStatement extends AbstractPreparedStatement
     @Override
     public int executeUpdate() throws SQLException {
         addParameters();
-        int result = connection.sendInsertRequest(block);
+        awaitSent();
+        int result = sentRows + connection.sendInsertRequest(block);
+        this.sentRows = 0;
         this.blockInit = false;
-        this.block.initWriteBuffer();
         return result;
     }
 
@@ -77,6 +102,7 @@ public class ClickHousePreparedInsertStatement extends AbstractPreparedStatement
     @Override
     public void addBatch() throws SQLException {
         addParameters();
+        flushBlockIfFull();
     }
 
     @Override
@@ -85,34 +111,176 @@ public class ClickHousePreparedInsertStatement extends AbstractPreparedStatement
         block.setObject(index - 1, x);
     }
 
+    /**
+     * Set a whole column of the next columnar batch, {@code values} is an {@code Object[]} or a primitive
+     * array matching the column type, e.g. {@code long[]} for Int64 and {@code double[]} for Float64.
+     */
+    public void setColumn(int index, Object values) throws SQLException {
+        setColumn(index, values, null);
+    }
+
+    /**
+     * Same as {@link #setColumn(int, Object)} for a Nullable column, {@code nulls[i]} marks the i-th value as null.
+     */
+    public void setColumn(int index, Object values, boolean[] nulls) throws SQLException {
+        initBlockIfPossible();
+        block.setColumnValues(index - 1, values, nulls);
+    }
+
+    /**
+     * Append the columns set by {@link #setColumn(int, Object, boolean[])} to the batch, they are
+     * serialized in bulk instead of row by row through {@link #setObject(int, Object)} and {@link #addBatch()}.
+     */
+    public void addColumnarBatch() throws SQLException {
+        initBlockIfPossible();
+        block.appendColumns();
+        flushBlockIfFull();
+    }
+
     private void addParameters() throws SQLException {
         block.appendRow();
     }
 
+    /**
+     * Sends the rows added so far once they reach insert_block_rows or insert_block_bytes, so a large batch
+     * is streamed to the server in blocks instead of being held in memory until {@link #executeBatch()}.
+     * The INSERT is kept open and the sent rows are visible to the server as they arrive, as with any insert.
+     */
+    private void flushBlockIfFull() throws SQLException {
+        throwSendFailure();
+        ClickHouseConfig cfg = connection.getConfigure();
+        boolean full = (cfg.insertBlockRows() > 0 && block.rows() >= cfg.insertBlockRows())
+                || (cfg.insertBlockBytes() > 0 && block.bytes() >= cfg.insertBlockBytes());
+        if (!full) {
+            return;
+        }
+        if (cfg.insertAsyncBlocks() > 0) {
+            sendAsync(cfg.insertAsyncBlocks());
+            return;
+        }
+        try {
+            connection.sendInsertData(block);
+        } catch (SQLException ex) {
+            abortInsert(ex);
+            throw ex;
+        }
+        sentRows += block.rows();
+        block.clearRows();
+        block.initWriteBuffer(connection.bufferPool());
+    }
+
+    /**
+     * Hands the filled block to the background sender and carries on with a spare one, waiting for one
+     * when {@code maxBlocks} blocks are already queued. A send failure is thrown by the next call.
+     */
+    private void sendAsync(int maxBlocks) throws SQLException {
+        Block filled = block;
+        Block next = spareBlocks.poll();
+        if (next == null && createdBlocks < maxBlocks) {
+            next = filled.newWriteBlock(connection.bufferPool());
+            createdBlocks++;
+        }
+        while (next == null) {
+            try {
+                next = spareBlocks.take();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for the insert sender", ex);
+            }
+        }
+
+        sentRows += filled.rows();
+        sending = sending.thenRunAsync(() -> {
+            try {
+                if (sendFailure == null) {
+                    connection.sendInsertData(filled);
+                }
+            } catch (SQLException | RuntimeException ex) {
+                abortInsert(ex instanceof SQLException ? (SQLException) ex : new SQLException(ex.getMessage(), ex));
+            } finally {
+                filled.clearRows();
+                filled.initWriteBuffer(connection.bufferPool());
+                spareBlocks.add(filled);
+            }
+        }, EXECUTOR);
+        block = next;
+    }
+
+    /**
+     * Ends the INSERT after a block failed to be sent. The rows added since are discarded and the batch
+     * fails, rather than {@link #executeBatch()} committing the part of it which was not sent.
+     */
+    private void abortInsert(SQLException failure) {
+        sendFailure = failure;
+        connection.abortInsert();
+    }
+
+    /**
+     * Waits for the blocks handed to the background sender, and throws the failure of any of them, the
+     * batch is cleared then.
+     */
+    private void awaitSent() throws SQLException {
+        try {
+            sending.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the insert sender", ex);
+        } catch (ExecutionException ex) {
+            throw new SQLException(ex.getCause().getMessage(), ex.getCause());
+        } finally {
+            spareBlocks.clear();
+            createdBlocks = 0;
+        }
+        SQLException failure = sendFailure;
+        if (failure != null) {
+            sendFailure = null;
+            sentRows = 0;
+            blockInit = false;
+            throw failure;
+        }
+    }
+
+    private void throwSendFailure() throws SQLException {
+        SQLException failure = sendFailure;
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
     @Override
     public void clearBatch() throws SQLException {
     }
 
     @Override
     public int[] executeBatch() throws SQLException {
-        int rows = connection.sendInsertRequest(block);
+        awaitSent();
+        int rows = sentRows + connection.sendInsertRequest(block);
+        this.sentRows = 0;
         int[] result = new int[rows];
         Arrays.fill(result, 1);
         clearBatch();
         this.blockInit = false;
-        this.block.initWriteBuffer();
         return result;
     }
 
     @Override
     public void close() throws SQLException {
-        if (blockInit) {
+        SQLException sendFailure = null;
+        try {
+            awaitSent();
+        } catch (SQLException ex) {
+            sendFailure = ex;
+        }
+        if (blockInit && sendFailure == null) {
             // Empty insert when close.
             this.connection.sendInsertRequest(new Block());
+            this.sentRows = 0;
             this.blockInit = false;
-            this.block.initWriteBuffer();
         }
         super.close();
+        if (sendFailure != null) {
+            throw sendFailure;
+        }
     }
 
     private static int computeQuestionMarkSize(String query, int start) throws SQLException {
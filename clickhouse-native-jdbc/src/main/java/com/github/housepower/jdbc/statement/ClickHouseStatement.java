@@ -18,6 +18,9 @@ import com.github.housepower.jdbc.ClickHouseConnection;
 import com.github.housepower.jdbc.ClickHouseResultSet;
 import com.github.housepower.jdbc.connect.PhysicalInfo;
 import com.github.housepower.jdbc.data.Block;
+import com.github.housepower.jdbc.misc.CheckedIterator;
+import com.github.housepower.jdbc.protocol.DataResponse;
+import com.github.housepower.jdbc.protocol.PrefetchingDataIterator;
 import com.github.housepower.jdbc.protocol.QueryResponse;
 import com.github.housepower.jdbc.settings.ClickHouseConfig;
 import com.github.housepower.jdbc.settings.SettingKey;
@@ -27,8 +30,14 @@ import com.github.housepower.jdbc.wrapper.SQLStatement;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
 import java.sql.SQLWarning;
 import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -36,13 +45,31 @@ public class ClickHouseStatement implements SQLStatement {
     private static final Pattern VALUES_REGEX = Pattern.compile("[V|v][A|a][L|l][U|u][E|e][S|s]\\s*\\(");
     private static final Pattern SELECT_DB_TABLE = Pattern.compile("(?i)FROM\\s+(\\S+\\.)?(\\S+)");
 
+    private static final AtomicInteger TIMER_ID = new AtomicInteger();
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "clickhouse-query-timeout-" + TIMER_ID.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private ResultSet lastResultSet;
+    // read by the threads cancelling the query
+    private volatile QueryResponse lastResponse;
+    private volatile boolean running;
+    private volatile boolean timedOut;
+    private volatile boolean cancelled;
+    private ScheduledFuture<?> timeoutTask;
+    // ms of setQueryTimeout, the query_timeout of the URL is only the socket read timeout
+    private int cancelTimeout;
     protected Block block;
     protected final ClickHouseConnection connection;
     protected final PhysicalInfo physicalInfo;
 
     private final ClickHouseConfig cfg;
+    // the max_block_size of the URL, which queries without a fetch size run with
+    private final Object maxBlockSize;
     private long maxRows;
+    private int fetchSize;
     private String db;
     private String table = "unknown";
 
@@ -50,6 +77,7 @@ public class ClickHouseStatement implements SQLStatement {
         this.connection = connection;
         this.physicalInfo = physicalInfo;
         this.cfg = connection.getConfigure().copy();
+        this.maxBlockSize = cfg.settings().get(SettingKey.max_block_size);
         this.db = cfg.database();
     }
 
@@ -66,7 +94,15 @@ public class ClickHouseStatement implements SQLStatement {
 
     @Override
     public int executeUpdate(String query) throws SQLException {
+        closeLastResultSet();
         cfg.settings().put(SettingKey.max_result_rows, maxRows);
+        if (fetchSize > 0) {
+            cfg.settings().put(SettingKey.max_block_size, (long) fetchSize);
+        } else if (maxBlockSize != null) {
+            cfg.settings().put(SettingKey.max_block_size, maxBlockSize);
+        } else {
+            cfg.settings().remove(SettingKey.max_block_size);
+        }
 
         extractDBAndTableName(query);
         Matcher matcher = VALUES_REGEX.matcher(query);
@@ -75,16 +111,108 @@ public class ClickHouseStatement implements SQLStatement {
             lastResultSet = null;
             String insertQuery = query.substring(0, matcher.end() - 1);
             block = getSampleBlock(insertQuery);
-            block.initWriteBuffer();
+            block.initWriteBuffer(connection.bufferPool());
             new ValuesInputFormat(matcher.end() - 1, query).fillBlock(block);
             return connection.sendInsertRequest(block);
         }
 
-        QueryResponse response = connection.sendQueryRequest(query, cfg);
-        lastResultSet = new ClickHouseResultSet(response.header(), db, table, response.data().get(), this);
+        QueryResponse response;
+        cancelled = false;
+        running = true;
+        scheduleTimeout();
+        try {
+            response = connection.sendQueryRequest(query, cfg);
+        } catch (SQLException ex) {
+            running = false;
+            throw finishTimeout(ex);
+        }
+        lastResponse = response;
+        Block header = response.header();
+        CheckedIterator<DataResponse, SQLException> data = timeoutAware(response.data().get());
+        if (cfg.prefetchBlocks() > 0) {
+            data = new PrefetchingDataIterator(data, cfg.prefetchBlocks(), cfg.prefetchMaxBytes(), this::cancel);
+        }
+        lastResultSet = new ClickHouseResultSet(header, db, table, data, this, response);
         return 0;
     }
 
+    private void closeLastResultSet() throws SQLException {
+        if (lastResultSet != null) {
+            lastResultSet.close();
+            lastResultSet = null;
+        }
+        running = false;
+        finishTimeout(null);
+        lastResponse = null;
+    }
+
+    /**
+     * Cancels the query once the timeout of {@link #setQueryTimeout(int)} elapses, as the server only stops
+     * a query by itself when max_execution_time is set.
+     */
+    private void scheduleTimeout() {
+        timedOut = false;
+        if (cancelTimeout > 0) {
+            timeoutTask = TIMER.schedule(() -> {
+                QueryResponse response = lastResponse;
+                if (response == null || !response.isAtEnd()) {
+                    timedOut = true;
+                    try {
+                        cancel();
+                    } catch (SQLException ignored) {
+                        // the reading thread fails on the broken connection
+                    }
+                }
+            }, cancelTimeout, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops the timeout of the finished query, returning the exception to raise for {@code ex}, which
+     * is null for a query that ended normally unless it was cut short by the timeout or {@link #cancel()}.
+     */
+    private SQLException finishTimeout(SQLException ex) {
+        if (timeoutTask != null) {
+            timeoutTask.cancel(false);
+            timeoutTask = null;
+        }
+        if (timedOut) {
+            return new SQLTimeoutException(String.format(Locale.ROOT,
+                    "Query was cancelled, it ran longer than the query timeout of %d ms.", cancelTimeout), ex);
+        }
+        if (cancelled) {
+            return new SQLException("Query was cancelled", ex);
+        }
+        return ex;
+    }
+
+    private CheckedIterator<DataResponse, SQLException> timeoutAware(CheckedIterator<DataResponse, SQLException> data) {
+        return new CheckedIterator<DataResponse, SQLException>() {
+            @Override
+            public boolean hasNext() throws SQLException {
+                boolean hasNext;
+                try {
+                    hasNext = data.hasNext();
+                } catch (SQLException ex) {
+                    throw finishTimeout(ex);
+                }
+                if (!hasNext) {
+                    running = false;
+                    SQLException ex = finishTimeout(null);
+                    if (ex != null) {
+                        throw ex;
+                    }
+                }
+                return hasNext;
+            }
+
+            @Override
+            public DataResponse next() throws SQLException {
+                return data.next();
+            }
+        };
+    }
+
     private void extractDBAndTableName(String sql) {
         String upperSQL = sql.trim().toUpperCase(Locale.ROOT);
         if (upperSQL.startsWith("SELECT")) {
@@ -124,12 +252,22 @@ public class ClickHouseStatement implements SQLStatement {
         maxRows = max;
     }
 
+    /**
+     * The next queries ask the server for blocks of {@code rows} rows (max_block_size), so the result set
+     * holds one such block at a time, 0 goes back to the max_block_size of the connection. Blocks are only
+     * read ahead on a background thread with prefetch_blocks.
+     */
     @Override
     public void setFetchSize(int rows) throws SQLException {
+        if (rows < 0) {
+            throw new SQLException(String.format(Locale.ROOT, "Illegal fetchSize value: %d", rows));
+        }
+        fetchSize = rows;
     }
 
     @Override
     public void close() throws SQLException {
+        closeLastResultSet();
     }
 
     // JDBC returns timeout in seconds
@@ -138,9 +276,14 @@ public class ClickHouseStatement implements SQLStatement {
         return cfg.queryTimeout() / 1000;
     }
 
+    /**
+     * Cancels the queries of this statement running longer than {@code seconds}, and uses it as the socket read
+     * timeout like the query_timeout of the URL, which doesn't cancel queries.
+     */
     @Override
     public void setQueryTimeout(int seconds) {
         cfg.setQueryTimeout(seconds * 1000);
+        this.cancelTimeout = seconds * 1000;
     }
 
     @Override
@@ -153,9 +296,17 @@ public class ClickHouseStatement implements SQLStatement {
         return connection;
     }
 
-    // TODO cancel
+    /**
+     * Sends the Cancel packet for the running query, it may be called from any thread. The reading
+     * thread then sees the rest of the response, which the server ends early, and fails with
+     * "Query was cancelled" instead of taking the partial result for a complete one.
+     */
     @Override
-    public void cancel() {
+    public void cancel() throws SQLException {
+        if (running && !cancelled) {
+            cancelled = true;
+            connection.sendCancel();
+        }
     }
 
     @Override
@@ -198,7 +349,7 @@ public class ClickHouseStatement implements SQLStatement {
 
     @Override
     public int getFetchSize() throws SQLException {
-        return 0;
+        return fetchSize;
     }
 
     @Override
@@ -16,9 +16,12 @@ package com.github.housepower.jdbc;
 
 import org.junit.jupiter.api.Test;
 
+import java.sql.Connection;
 import java.sql.Date;
+import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.Arrays;
@@ -212,4 +215,105 @@ public class BatchInsertITest extends AbstractITest {
         });
 
     }
+
+    @Test
+    public void successfullyBatchInsertInSeveralBlocks() throws Exception {
+        batchInsertInSeveralBlocks("?insert_block_rows=100");
+    }
+
+    @Test
+    public void successfullyBatchInsertInBlocksSentAsynchronously() throws Exception {
+        batchInsertInSeveralBlocks("?insert_block_rows=100&insert_async_blocks=2");
+    }
+
+    @Test
+    public void successfullyReuseColumnBuffersBetweenBatches() throws Exception {
+        withNewConnection(connection -> {
+            Statement statement = connection.createStatement();
+
+            statement.execute("DROP TABLE IF EXISTS test");
+            statement.execute("CREATE TABLE test(id Int32, name String, value Float64)ENGINE=Log");
+            PreparedStatement preparedStatement = connection.prepareStatement("INSERT INTO test VALUES(?, ?, ?)");
+
+            for (int batch = 0; batch < 2; batch++) {
+                for (int i = 0; i < 10; i++) {
+                    preparedStatement.setInt(1, i);
+                    preparedStatement.setString(2, "Zhang San" + i);
+                    preparedStatement.setDouble(3, i);
+                    preparedStatement.addBatch();
+                }
+                assertBatchInsertResult(preparedStatement.executeBatch(), 10);
+            }
+
+            // the buffers of the first batch are released when it is sent and taken again by the second
+            assertTrue(connection.unwrap(ClickHouseConnection.class).bufferPool().hits() > 0);
+        });
+    }
+
+    @Test
+    public void successfullyBatchInsertWithCachedSampleBlock() throws Exception {
+        withNewConnection(connection -> {
+            Statement statement = connection.createStatement();
+
+            statement.execute("DROP TABLE IF EXISTS test");
+            statement.execute("CREATE TABLE test(id Int32)ENGINE=Log");
+        });
+
+        try (Connection connection = DriverManager.getConnection(getJdbcUrl() + "?sample_block_cache_ttl=60000")) {
+            for (int batch = 0; batch < 3; batch++) {
+                PreparedStatement preparedStatement = connection.prepareStatement("INSERT INTO test VALUES(?)");
+                for (int i = 0; i < 10; i++) {
+                    preparedStatement.setInt(1, i);
+                    preparedStatement.addBatch();
+                }
+                assertBatchInsertResult(preparedStatement.executeBatch(), 10);
+            }
+
+            // the cached columns no longer match, the INSERT fails once without inserting anything
+            connection.createStatement().execute("ALTER TABLE test ADD COLUMN name String");
+            PreparedStatement stale = connection.prepareStatement("INSERT INTO test VALUES(?)");
+            stale.setInt(1, 1);
+            stale.addBatch();
+            assertThrows(SQLException.class, stale::executeBatch);
+
+            PreparedStatement preparedStatement = connection.prepareStatement("INSERT INTO test VALUES(?, ?)");
+            preparedStatement.setInt(1, 1);
+            preparedStatement.setString(2, "a");
+            preparedStatement.addBatch();
+            assertBatchInsertResult(preparedStatement.executeBatch(), 1);
+
+            ResultSet rs = connection.createStatement().executeQuery("SELECT count() FROM test");
+            assertTrue(rs.next());
+            assertEquals(31, rs.getInt(1));
+            connection.createStatement().execute("DROP TABLE IF EXISTS test");
+        }
+    }
+
+    private void batchInsertInSeveralBlocks(String params) throws Exception {
+        withNewConnection(connection -> {
+            Statement statement = connection.createStatement();
+
+            statement.execute("DROP TABLE IF EXISTS test");
+            statement.execute("CREATE TABLE test(id Int32, name Nullable(String))ENGINE=Log");
+        });
+
+        try (Connection connection = DriverManager.getConnection(getJdbcUrl() + params)) {
+            PreparedStatement preparedStatement = connection.prepareStatement("INSERT INTO test VALUES(?, ?)");
+            int insertBatchSize = 1050;
+            for (int i = 0; i < insertBatchSize; i++) {
+                preparedStatement.setInt(1, i);
+                preparedStatement.setString(2, i % 3 == 0 ? null : "name" + i);
+                preparedStatement.addBatch();
+            }
+            assertBatchInsertResult(preparedStatement.executeBatch(), insertBatchSize);
+
+            ResultSet rs = connection.createStatement().executeQuery(
+                    "SELECT count(), sum(id), countIf(name IS NULL) FROM test");
+            assertTrue(rs.next());
+            assertEquals(insertBatchSize, rs.getInt(1));
+            assertEquals((long) insertBatchSize * (insertBatchSize - 1) / 2, rs.getLong(2));
+            assertEquals(350, rs.getInt(3));
+            connection.createStatement().execute("DROP TABLE IF EXISTS test");
+        }
+    }
 }
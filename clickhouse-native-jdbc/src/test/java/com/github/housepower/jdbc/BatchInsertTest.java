@@ -0,0 +1,81 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.housepower.jdbc;
+
+import com.github.housepower.jdbc.connect.HostStats;
+import com.github.housepower.jdbc.connect.PhysicalConnection;
+import com.github.housepower.jdbc.connect.PhysicalInfo;
+import com.github.housepower.jdbc.data.Block;
+import com.github.housepower.jdbc.data.ColumnFactory;
+import com.github.housepower.jdbc.data.DataTypeFactory;
+import com.github.housepower.jdbc.data.IColumn;
+import com.github.housepower.jdbc.protocol.QueryRequest;
+import com.github.housepower.jdbc.settings.ClickHouseConfig;
+import com.github.housepower.jdbc.settings.ClickHouseDefines;
+import org.junit.jupiter.api.Test;
+
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.ZoneId;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchInsertTest {
+
+    @Test
+    public void failedBatchWhenABlockFailsToBeSent() throws Exception {
+        try (ServerSocket server = new ServerSocket(0)) {
+            String url = "jdbc:clickhouse://127.0.0.1:" + server.getLocalPort() + "?insert_block_rows=1"
+                    + "&insert_async_blocks=1&health_check_idle_time=60000&query_timeout=1&connect_timeout=1";
+            ClickHouseConfig config = new ClickHouseConfig(url, new Properties());
+            PhysicalConnection physical = PhysicalConnection.openPhysicalConnection(config);
+            PhysicalInfo info = new PhysicalInfo(
+                    new QueryRequest.ClientInfo("[::ffff:127.0.0.1]:0", "localhost", "test",
+                            ClickHouseDefines.CLIENT_REVISION),
+                    new PhysicalInfo.ServerInfo(config, ClickHouseDefines.CLIENT_REVISION, ZoneId.systemDefault(),
+                            "test"),
+                    physical);
+            // the columns are cached, so the INSERT is sent without waiting for the server's
+            SampleBlockCache cache = new SampleBlockCache(60000);
+            cache.put(SampleBlockCache.key("default", "INSERT INTO test VALUES"), new Block(0, new IColumn[] {
+                ColumnFactory.createColumn("id", DataTypeFactory.get("Int32", null), null)
+            }));
+            ClickHouseConnection connection = new ClickHouseConnection(config, info, cache);
+
+            try (Socket accepted = server.accept()) {
+                PreparedStatement statement = connection.prepareStatement("INSERT INTO test VALUES(?)");
+                // the server goes away, the first block fails to be sent in the background
+                accepted.close();
+                SQLException failure = assertThrows(SQLException.class, () -> {
+                    for (int i = 0; i < 1000; i++) {
+                        statement.setInt(1, i);
+                        statement.addBatch();
+                    }
+                });
+
+                // the INSERT was aborted, the rest of the batch is not committed on its own
+                assertEquals(0, HostStats.of(config.hosts().get(0)).openConnections());
+                assertSame(failure, assertThrows(SQLException.class, statement::executeBatch));
+                statement.close();
+            } finally {
+                connection.close();
+            }
+        }
+    }
+}
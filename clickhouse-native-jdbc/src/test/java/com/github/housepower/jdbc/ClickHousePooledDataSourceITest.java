@@ -0,0 +1,74 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.housepower.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClickHousePooledDataSourceITest extends AbstractITest {
+
+    @Test
+    public void successfullyReusePhysicalConnection() throws Exception {
+        try (ClickHousePooledDataSource dataSource = new ClickHousePooledDataSource(getJdbcUrl())) {
+            for (int i = 0; i < 5; i++) {
+                try (Connection connection = dataSource.getConnection();
+                     Statement statement = connection.createStatement()) {
+                    ResultSet rs = statement.executeQuery("SELECT 1");
+                    assertTrue(rs.next());
+                    assertEquals(1, dataSource.activeConnections());
+                }
+            }
+            assertEquals(1, dataSource.createdConnections());
+            assertEquals(5, dataSource.leasedConnections());
+            assertEquals(1, dataSource.idleConnections());
+            assertEquals(0, dataSource.activeConnections());
+        }
+    }
+
+    @Test
+    public void successfullyDropUnconsumedConnection() throws Exception {
+        try (ClickHousePooledDataSource dataSource = new ClickHousePooledDataSource(getJdbcUrl())) {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.executeQuery("SELECT number FROM numbers(1000000)");
+            }
+            assertEquals(0, dataSource.idleConnections());
+
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                ResultSet rs = statement.executeQuery("SELECT 2");
+                assertTrue(rs.next());
+                assertEquals(2, rs.getInt(1));
+            }
+            assertEquals(2, dataSource.createdConnections());
+        }
+    }
+
+    @Test
+    public void failedWhenPoolExhausted() throws Exception {
+        String url = getJdbcUrl() + "?pool_max_size=1&pool_max_wait=100";
+        try (ClickHousePooledDataSource dataSource = new ClickHousePooledDataSource(url);
+             Connection ignored = dataSource.getConnection()) {
+            assertThrows(SQLException.class, dataSource::getConnection);
+        }
+    }
+}
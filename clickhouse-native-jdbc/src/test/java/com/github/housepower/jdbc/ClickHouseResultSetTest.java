@@ -0,0 +1,79 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.housepower.jdbc;
+
+import com.github.housepower.jdbc.data.Block;
+import com.github.housepower.jdbc.data.ColumnLong;
+import com.github.housepower.jdbc.data.IColumn;
+import com.github.housepower.jdbc.data.type.DataTypeInt64;
+import com.github.housepower.jdbc.misc.CheckedIterator;
+import com.github.housepower.jdbc.protocol.DataResponse;
+
+import java.nio.LongBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClickHouseResultSetTest {
+
+    @Test
+    public void successfullyMixRowsAndBlocks() throws Exception {
+        ResultSet rs = resultSet(block(0, 1, 2), block(), block(3, 4), block(5));
+        ClickHouseResultSet blocks = rs.unwrap(ClickHouseResultSet.class);
+
+        assertTrue(rs.next());
+        assertEquals(0, rs.getLong(1));
+
+        // skips the rest of the first block and the empty one
+        Block block = blocks.nextBlock();
+        assertEquals(2, block.rows());
+        LongBuffer longs = ((ColumnLong) block.getByPosition(0)).longs();
+        assertEquals(3, longs.get(0));
+        assertEquals(4, longs.get(1));
+        assertThrows(ReadOnlyBufferException.class, () -> longs.put(0, 42));
+
+        assertTrue(rs.next());
+        assertEquals(5, rs.getLong(1));
+        assertFalse(rs.next());
+        assertNull(blocks.nextBlock());
+    }
+
+    private static Block block(long... values) {
+        return new Block(values.length, new IColumn[]{new ColumnLong("n", new DataTypeInt64("Int64"), values)});
+    }
+
+    private static ResultSet resultSet(Block... blocks) {
+        Iterator<Block> it = Arrays.asList(blocks).iterator();
+        CheckedIterator<DataResponse, SQLException> iterator = new CheckedIterator<DataResponse, SQLException>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public DataResponse next() {
+                return new DataResponse("", it.next());
+            }
+        };
+        return new ClickHouseResultSet(block(), "default", "test", iterator, null);
+    }
+}
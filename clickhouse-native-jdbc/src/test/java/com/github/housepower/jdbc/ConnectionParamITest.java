@@ -14,17 +14,22 @@
 
 package com.github.housepower.jdbc;
 
+import com.github.housepower.jdbc.connect.LoadBalancingPolicy;
 import com.github.housepower.jdbc.settings.ClickHouseConfig;
 import com.github.housepower.jdbc.settings.SettingKey;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.net.InetSocketAddress;
 import java.sql.*;
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.Properties;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ConnectionParamITest {
 
@@ -66,6 +71,33 @@ public class ConnectionParamITest {
         assertEquals(400, rowsRead);
     }
 
+    @Test
+    public void successfullyFetchSize() throws Exception {
+        Connection connection = DriverManager.getConnection("jdbc:clickhouse://127.0.0.1?connect_timeout=10");
+        Statement statement = connection.createStatement();
+        statement.setFetchSize(1000);
+        ResultSet rs = statement.executeQuery("SELECT number FROM numbers(100000)");
+        assertEquals(1000, rs.getFetchSize());
+        long rowsRead = 0;
+        while (rs.next()) {
+            assertEquals(rowsRead++, rs.getLong(1));
+        }
+        assertEquals(100000, rowsRead);
+    }
+
+    @Test
+    public void successfullyHealthCheckIdleTime() throws Exception {
+        Connection connection = DriverManager
+                .getConnection("jdbc:clickhouse://127.0.0.1?health_check_idle_time=60000&connect_timeout=10");
+        Statement statement = connection.createStatement();
+        for (int i = 0; i < 3; i++) {
+            ResultSet rs = statement.executeQuery("SELECT 1");
+            assertTrue(rs.next());
+        }
+        // the connection was just used by the handshake, so no query needs a ping
+        assertEquals(3, connection.unwrap(ClickHouseConnection.class).pingsAvoided());
+    }
+
     @Test
     public void successfullyUrlParser() throws Exception {
         String url = "jdbc:clickhouse://127.0.0.1/system?min_insert_block_size_rows=1000&connect_timeout=50";
@@ -109,4 +141,17 @@ public class ConnectionParamITest {
         assertEquals(50000, config.connectTimeout());
     }
 
+    @Test
+    public void successfullyMultiHostUrl() throws Exception {
+        String url = "jdbc:clickhouse://host1:9001,host2,host3:9003/system?load_balancing_policy=LATENCY";
+        ClickHouseConfig config = new ClickHouseConfig(url, new Properties());
+        assertEquals("host1", config.address());
+        assertEquals(9001, config.port());
+        assertEquals("system", config.database());
+        assertEquals(Arrays.asList(InetSocketAddress.createUnresolved("host1", 9001),
+                InetSocketAddress.createUnresolved("host2", 9000),
+                InetSocketAddress.createUnresolved("host3", 9003)), config.hosts());
+        assertEquals(LoadBalancingPolicy.LATENCY, config.loadBalancingPolicy());
+        assertNull(config.settings().get(SettingKey.load_balancing_policy));
+    }
 }
@@ -17,6 +17,7 @@ package com.github.housepower.jdbc;
 import org.junit.jupiter.api.Test;
 
 import java.sql.Array;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
 import java.sql.Struct;
@@ -276,4 +277,30 @@ public class QueryComplexTypeITest extends AbstractITest {
             statement.executeQuery("DROP TABLE IF EXISTS test");
         });
     }
+
+    @Test
+    public void successfullyLowCardinality() throws Exception {
+        withNewConnection(connection -> {
+            Statement statement = connection.createStatement();
+            statement.executeQuery("DROP TABLE IF EXISTS test");
+            statement.execute("CREATE TABLE test (level LowCardinality(String), host LowCardinality(Nullable(String)))"
+                + "ENGINE = Log");
+            PreparedStatement pstmt = connection.prepareStatement("INSERT INTO test VALUES(?, ?)");
+            for (int i = 0; i < 100; i++) {
+                pstmt.setString(1, i % 3 == 0 ? "INFO" : "WARN");
+                pstmt.setString(2, i % 5 == 0 ? null : "host" + (i % 2));
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+
+            ResultSet rs = statement.executeQuery("SELECT level, host FROM test");
+            for (int i = 0; i < 100; i++) {
+                assertTrue(rs.next());
+                assertEquals(i % 3 == 0 ? "INFO" : "WARN", rs.getString(1));
+                assertEquals(i % 5 == 0 ? null : "host" + (i % 2), rs.getString(2));
+            }
+            assertFalse(rs.next());
+            statement.executeQuery("DROP TABLE IF EXISTS test");
+        });
+    }
 }
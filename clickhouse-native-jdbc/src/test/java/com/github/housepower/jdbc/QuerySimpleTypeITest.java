@@ -16,6 +16,7 @@ package com.github.housepower.jdbc;
 
 import org.junit.jupiter.api.Test;
 
+import java.math.BigInteger;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
@@ -126,6 +127,36 @@ public class QuerySimpleTypeITest extends AbstractITest {
         });
     }
 
+    @Test
+    public void successfullyNumericObjectTypes() throws Exception {
+        withNewConnection(connect -> {
+            Statement statement = connect.createStatement();
+            ResultSet rs = statement.executeQuery(
+                    "SELECT toInt8(-1), toUInt8(255), toInt16(-1), toUInt16(65535), toInt32(-1), toUInt32(4294967295),"
+                            + " toInt64(-1), toUInt64(18446744073709551615), toFloat32(1.5), toFloat64(2.5),"
+                            + " if(number = 0, NULL, toNullable(number)) FROM numbers(2)");
+
+            assertTrue(rs.next());
+            assertEquals((byte) -1, rs.getObject(1));
+            assertEquals((short) 255, rs.getObject(2));
+            assertEquals((short) -1, rs.getObject(3));
+            assertEquals(65535, rs.getObject(4));
+            assertEquals(-1, rs.getObject(5));
+            assertEquals(4294967295L, rs.getObject(6));
+            assertEquals(-1L, rs.getObject(7));
+            assertEquals(new BigInteger("18446744073709551615"), rs.getObject(8));
+            assertEquals(1.5F, rs.getObject(9));
+            assertEquals(2.5D, rs.getObject(10));
+            assertNull(rs.getObject(11));
+            assertTrue(rs.wasNull());
+
+            assertTrue(rs.next());
+            assertEquals(new BigInteger("1"), rs.getObject(11));
+            assertFalse(rs.wasNull());
+            assertFalse(rs.next());
+        });
+    }
+
     @Test
     public void successfullyUUIDColumn() throws Exception {
         withNewConnection(connect -> {
@@ -0,0 +1,82 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.housepower.jdbc;
+
+import com.github.housepower.jdbc.data.Block;
+import com.github.housepower.jdbc.data.ColumnFactory;
+import com.github.housepower.jdbc.data.DataTypeFactory;
+import com.github.housepower.jdbc.data.IColumn;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SampleBlockCacheTest {
+
+    private static final String KEY = SampleBlockCache.key("default", "INSERT INTO test VALUES");
+
+    @Test
+    public void successfullyReuseCopiesOfTheSampleBlock() throws Exception {
+        SampleBlockCache cache = new SampleBlockCache(60000);
+        Block sample = sample("id", "Int64", "name", "String");
+        assertNull(cache.get(KEY));
+
+        cache.put(KEY, sample);
+        Block first = cache.get(KEY);
+        Block second = cache.get(KEY);
+
+        assertNotSame(sample, first);
+        assertNotSame(first.getByPosition(0), second.getByPosition(0));
+        assertTrue(SampleBlockCache.sameColumns(sample, first));
+        assertEquals(2, cache.hits());
+        assertEquals(1, cache.misses());
+
+        cache.invalidate(KEY);
+        assertNull(cache.get(KEY));
+    }
+
+    @Test
+    public void successfullyExpireSampleBlocks() throws Exception {
+        SampleBlockCache cache = new SampleBlockCache(1);
+        cache.put(KEY, sample("id", "Int64"));
+        Thread.sleep(5);
+        assertNull(cache.get(KEY));
+
+        SampleBlockCache disabled = new SampleBlockCache(0);
+        disabled.put(KEY, sample("id", "Int64"));
+        assertNull(disabled.get(KEY));
+    }
+
+    @Test
+    public void successfullyCompareColumns() throws Exception {
+        Block sample = sample("id", "Int64", "name", "String");
+
+        assertTrue(SampleBlockCache.sameColumns(sample, sample("id", "Int64", "name", "String")));
+        assertFalse(SampleBlockCache.sameColumns(sample, sample("id", "Int64")));
+        assertFalse(SampleBlockCache.sameColumns(sample, sample("id", "Int64", "name", "Nullable(String)")));
+        assertFalse(SampleBlockCache.sameColumns(sample, sample("id", "Int64", "title", "String")));
+    }
+
+    private static Block sample(String... namesAndTypes) throws SQLException {
+        IColumn[] columns = new IColumn[namesAndTypes.length / 2];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = ColumnFactory.createColumn(namesAndTypes[2 * i],
+                    DataTypeFactory.get(namesAndTypes[2 * i + 1], null), null);
+        }
+        return new Block(0, columns);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.housepower.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatementCancelITest extends AbstractITest {
+
+    @Test
+    public void successfullyCancelByQueryTimeout() throws Exception {
+        withNewConnection(connection -> {
+            Statement statement = connection.createStatement();
+            statement.setQueryTimeout(1);
+            assertThrows(SQLTimeoutException.class, () -> {
+                ResultSet rs = statement.executeQuery("SELECT count() FROM system.numbers");
+                while (rs.next()) {
+                    rs.getLong(1);
+                }
+            });
+
+            ResultSet rs = connection.createStatement().executeQuery("SELECT 1");
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt(1));
+        });
+    }
+
+    @Test
+    public void successfullyRunLongerThanUrlQueryTimeout() throws Exception {
+        // the query_timeout of the URL is the socket read timeout, the progress of the query keeps it alive
+        try (Connection connection = DriverManager.getConnection(getJdbcUrl() + "?query_timeout=1")) {
+            ResultSet rs = connection.createStatement().executeQuery("SELECT max(number) FROM numbers(1000000000)");
+            assertTrue(rs.next());
+            assertEquals(999999999L, rs.getLong(1));
+        }
+    }
+
+    @Test
+    public void successfullyCancelFromAnotherThread() throws Exception {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            withNewConnection(connection -> {
+                Statement statement = connection.createStatement();
+                executor.schedule(() -> {
+                    statement.cancel();
+                    return null;
+                }, 500, TimeUnit.MILLISECONDS);
+
+                long start = System.nanoTime();
+                // the reader fails rather than taking the rows read so far for the whole result
+                assertThrows(SQLException.class, () -> {
+                    ResultSet rs = statement.executeQuery("SELECT number FROM system.numbers");
+                    while (rs.next()) {
+                        rs.getLong(1);
+                    }
+                });
+                assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 10);
+
+                ResultSet rs = connection.createStatement().executeQuery("SELECT 2");
+                assertTrue(rs.next());
+                assertEquals(2, rs.getInt(1));
+            });
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void successfullyCloseResultSetEarly() throws Exception {
+        withNewConnection(connection -> {
+            Statement statement = connection.createStatement();
+            ResultSet rs = statement.executeQuery("SELECT number FROM system.numbers LIMIT 100000000");
+            assertTrue(rs.next());
+            rs.close();
+            assertTrue(rs.isClosed());
+
+            ResultSet next = statement.executeQuery("SELECT 3");
+            assertTrue(next.next());
+            assertEquals(3, next.getInt(1));
+        });
+    }
+}
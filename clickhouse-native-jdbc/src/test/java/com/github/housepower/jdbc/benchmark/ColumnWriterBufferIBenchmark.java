@@ -0,0 +1,158 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.housepower.jdbc.benchmark;
+
+import com.github.housepower.jdbc.buffer.BuffedWriter;
+import com.github.housepower.jdbc.buffer.ByteArrayWriter;
+import com.github.housepower.jdbc.data.ColumnWriterBuffer;
+import com.github.housepower.jdbc.serializer.BinarySerializer;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Flushes a serialized Float64 column into a compressing serializer without a server, compares handing
+ * the column buffers over as whole slices against the former byte by byte copy.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class ColumnWriterBufferIBenchmark {
+    @Param({"1000000"})
+    protected int rows = 100000;
+
+    private ColumnWriterBuffer buffer;
+    // the same column for the former path, which read the writer's buffers itself
+    private ByteArrayWriter perByteColumn;
+
+    @Setup
+    public void setup() throws IOException {
+        buffer = new ColumnWriterBuffer();
+        perByteColumn = new ByteArrayWriter(buffer.pool());
+        BinarySerializer perByteSerializer = new BinarySerializer(perByteColumn, false);
+        for (int i = 0; i < rows; i++) {
+            buffer.column.writeDouble(i * 0.5);
+            perByteSerializer.writeDouble(i * 0.5);
+        }
+    }
+
+    @Benchmark
+    public void benchWriteToSlices() throws IOException {
+        writeSlices(compressedSerializer(new DiscardBuffedWriter()));
+    }
+
+    @Benchmark
+    public void benchWriteToPerByte() throws IOException {
+        writePerByte(compressedSerializer(new DiscardBuffedWriter()));
+    }
+
+    @Test
+    public void sameFramesAsPerByte() throws Exception {
+        setup();
+        CapturedBuffedWriter slices = new CapturedBuffedWriter();
+        CapturedBuffedWriter perByte = new CapturedBuffedWriter();
+        writeSlices(compressedSerializer(slices));
+        writePerByte(compressedSerializer(perByte));
+        assertArrayEquals(perByte.toByteArray(), slices.toByteArray());
+    }
+
+    private void writeSlices(BinarySerializer serializer) throws IOException {
+        buffer.writeTo(serializer);
+        serializer.flushToTarget(true);
+    }
+
+    // the former ColumnWriterBuffer.writeTo, straight from the column buffers into the same serializer
+    private void writePerByte(BinarySerializer serializer) throws IOException {
+        for (ByteBuffer columnBuffer : perByteColumn.getBufferList()) {
+            ByteBuffer written = (ByteBuffer) columnBuffer.duplicate().flip();
+            while (written.hasRemaining()) {
+                serializer.writeByte(written.get());
+            }
+        }
+        serializer.flushToTarget(true);
+    }
+
+    private static BinarySerializer compressedSerializer(BuffedWriter target) {
+        BinarySerializer serializer = new BinarySerializer(target, true);
+        serializer.maybeEnableCompressed();
+        return serializer;
+    }
+
+    private static class DiscardBuffedWriter implements BuffedWriter {
+        @Override
+        public void writeBinary(byte byt) {
+        }
+
+        @Override
+        public void writeBinary(byte[] bytes) {
+        }
+
+        @Override
+        public void writeBinary(byte[] bytes, int offset, int length) {
+        }
+
+        @Override
+        public void flushToTarget(boolean force) {
+        }
+    }
+
+    private static class CapturedBuffedWriter implements BuffedWriter {
+        private final ByteArrayOutputStream out;
+
+        CapturedBuffedWriter() {
+            this(new ByteArrayOutputStream());
+        }
+
+        CapturedBuffedWriter(ByteArrayOutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void writeBinary(byte byt) {
+            out.write(byt);
+        }
+
+        @Override
+        public void writeBinary(byte[] bytes) {
+            writeBinary(bytes, 0, bytes.length);
+        }
+
+        @Override
+        public void writeBinary(byte[] bytes, int offset, int length) {
+            out.write(bytes, offset, length);
+        }
+
+        @Override
+        public void flushToTarget(boolean force) {
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.housepower.jdbc.benchmark;
+
+import com.github.housepower.jdbc.ClickHouseResultSet;
+import com.github.housepower.jdbc.data.Block;
+import com.github.housepower.jdbc.data.ColumnDouble;
+import com.github.housepower.jdbc.data.ColumnLong;
+import com.github.housepower.jdbc.data.IColumn;
+import com.github.housepower.jdbc.data.type.DataTypeFloat64;
+import com.github.housepower.jdbc.data.type.DataTypeInt64;
+import com.github.housepower.jdbc.misc.CheckedIterator;
+import com.github.housepower.jdbc.protocol.DataResponse;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.LongBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Iterates a decoded block through {@link ClickHouseResultSet} without a server, run it with
+ * {@code -prof gc} to check {@code gc.alloc.rate.norm} does not grow with {@code rows}, which means
+ * the typed getters allocate nothing per row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class ResultSetGetterIBenchmark {
+    @Param({"100000", "1000000"})
+    protected int rows = 100000;
+
+    private Block block;
+
+    @Setup
+    public void setup() {
+        long[] longs = new long[rows];
+        double[] doubles = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            longs[i] = i;
+            doubles[i] = i;
+        }
+        block = new Block(rows, new IColumn[]{
+                new ColumnLong("n1", new DataTypeInt64("UInt64"), longs),
+                new ColumnDouble("n2", new DataTypeFloat64(), doubles)
+        });
+    }
+
+    @Benchmark
+    public long benchGetLong() throws SQLException {
+        ResultSet rs = resultSet();
+        long sum = 0;
+        while (rs.next()) {
+            sum += rs.getLong(1);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double benchGetDouble() throws SQLException {
+        ResultSet rs = resultSet();
+        double sum = 0;
+        while (rs.next()) {
+            sum += rs.getDouble(2);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long benchNextBlock() throws SQLException {
+        ClickHouseResultSet rs = resultSet().unwrap(ClickHouseResultSet.class);
+        long sum = 0;
+        for (Block next = rs.nextBlock(); next != null; next = rs.nextBlock()) {
+            LongBuffer longs = ((ColumnLong) next.getByPosition(0)).longs();
+            while (longs.hasRemaining()) {
+                sum += longs.get();
+            }
+        }
+        return sum;
+    }
+
+    @Test
+    public void sumByTypedGetters() throws Exception {
+        setup();
+        assertEquals((rows - 1L) * rows / 2, benchGetLong());
+        assertEquals((rows - 1D) * rows / 2, benchGetDouble());
+        assertEquals((rows - 1L) * rows / 2, benchNextBlock());
+    }
+
+    private ResultSet resultSet() {
+        CheckedIterator<DataResponse, SQLException> iterator = new CheckedIterator<DataResponse, SQLException>() {
+            private boolean consumed;
+
+            @Override
+            public boolean hasNext() {
+                return !consumed;
+            }
+
+            @Override
+            public DataResponse next() {
+                consumed = true;
+                return new DataResponse("", block);
+            }
+        };
+        return new ClickHouseResultSet(block, "default", "numbers", iterator, null);
+    }
+}
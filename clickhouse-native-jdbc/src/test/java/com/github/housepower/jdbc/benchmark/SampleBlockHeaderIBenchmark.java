@@ -0,0 +1,94 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.housepower.jdbc.benchmark;
+
+import com.github.housepower.jdbc.buffer.ByteArrayWriter;
+import com.github.housepower.jdbc.buffer.ByteBufferPool;
+import com.github.housepower.jdbc.data.Block;
+import com.github.housepower.jdbc.data.ColumnFactory;
+import com.github.housepower.jdbc.data.DataTypeFactory;
+import com.github.housepower.jdbc.data.IColumn;
+import com.github.housepower.jdbc.serializer.BinaryDeserializer;
+import com.github.housepower.jdbc.serializer.BinarySerializer;
+import com.github.housepower.jdbc.tool.FragmentBuffedReader;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The sample block of an INSERT whose columns are cached, decoded into a Block as on a cache miss, or
+ * only compared with the cached one as on a hit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class SampleBlockHeaderIBenchmark {
+    private static final String[] TYPES = {
+        "Int64", "Nullable(String)", "Float64", "Decimal(18, 4)", "Array(String)"
+    };
+    private static final int COLUMNS = 50;
+
+    private Block cached;
+    private byte[] header;
+
+    @Setup
+    public void setup() throws Exception {
+        IColumn[] columns = new IColumn[COLUMNS];
+        for (int i = 0; i < COLUMNS; i++) {
+            columns[i] = ColumnFactory.createColumn("col_" + i, DataTypeFactory.get(TYPES[i % TYPES.length], null),
+                    null);
+        }
+        cached = new Block(0, columns);
+        cached.initWriteBuffer(new ByteBufferPool(1024, 0));
+
+        ByteArrayWriter writer = new ByteArrayWriter(1024);
+        cached.writeTo(new BinarySerializer(writer, false));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (ByteBuffer buffer : writer.getBufferList()) {
+            out.write(buffer.array(), buffer.arrayOffset(), buffer.position());
+        }
+        header = out.toByteArray();
+    }
+
+    @Benchmark
+    public Block benchDecodeHeader() throws Exception {
+        return Block.readFrom(new BinaryDeserializer(new FragmentBuffedReader(header)), null);
+    }
+
+    @Benchmark
+    public boolean benchMatchHeader() throws Exception {
+        return Block.readHeaderMatching(new BinaryDeserializer(new FragmentBuffedReader(header)), null, cached);
+    }
+
+    @Test
+    public void sameHeaderBothWays() throws Exception {
+        setup();
+        assertEquals(COLUMNS, benchDecodeHeader().columns());
+        assertTrue(benchMatchHeader());
+    }
+}
@@ -14,11 +14,13 @@
 
 package com.github.housepower.jdbc.benchmark;
 
+import com.github.housepower.jdbc.statement.ClickHousePreparedInsertStatement;
 import com.google.common.base.Strings;
 import org.junit.jupiter.api.Test;
 import org.openjdk.jmh.annotations.Benchmark;
 
 import java.sql.PreparedStatement;
+import java.util.Arrays;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -38,6 +40,12 @@ public class WideColumnDoubleInsertIBenchmark extends AbstractInsertIBenchmark {
         withConnection(benchInsert, ConnectionType.HTTP);
     }
 
+    @Benchmark
+    @Test
+    public void benchColumnarInsertNative() throws Exception {
+        withConnection(benchColumnarInsert, ConnectionType.NATIVE);
+    }
+
     public WithConnection benchInsert = connection -> {
         wideColumnPrepare(connection, "Float64");
 
@@ -57,4 +65,22 @@ public class WideColumnDoubleInsertIBenchmark extends AbstractInsertIBenchmark {
         wideColumnAfter(connection);
     };
 
+    public WithConnection benchColumnarInsert = connection -> {
+        wideColumnPrepare(connection, "Float64");
+
+        String params = Strings.repeat("?, ", columnNum);
+        PreparedStatement pstmt = connection.prepareStatement("INSERT INTO " + getTableName() + " values(" + params.substring(0, params.length() - 2) + ")");
+        ClickHousePreparedInsertStatement insert = pstmt.unwrap(ClickHousePreparedInsertStatement.class);
+
+        for (int j = 0; j < columnNum; j++) {
+            double[] values = new double[batchSize];
+            Arrays.fill(values, j + 1.2);
+            insert.setColumn(j + 1, values);
+        }
+        insert.addColumnarBatch();
+        int[] res = pstmt.executeBatch();
+        assertEquals(res.length, batchSize);
+
+        wideColumnAfter(connection);
+    };
 }
@@ -0,0 +1,67 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.housepower.jdbc.buffer;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ByteBufferPoolTest {
+
+    @Test
+    public void successfullyReuseReleasedBuffers() {
+        ByteBufferPool pool = new ByteBufferPool(16, 1);
+
+        ByteBuffer first = pool.acquire();
+        ByteBuffer second = pool.acquire();
+        assertEquals(2, pool.misses());
+
+        first.put((byte) 1);
+        pool.release(first);
+        pool.release(second);
+        assertEquals(1, pool.pooledBuffers());
+
+        ByteBuffer reused = pool.acquire();
+        assertSame(first, reused);
+        assertEquals(0, reused.position());
+        assertEquals(1, pool.hits());
+        assertEquals(0, pool.pooledBuffers());
+    }
+
+    @Test
+    public void successfullyBoundPooledBytes() {
+        ByteBufferPool pool = ByteBufferPool.ofBytes(16, 40);
+        for (int i = 0; i < 3; i++) {
+            pool.release(ByteBuffer.allocate(16));
+        }
+        assertEquals(2, pool.pooledBuffers());
+    }
+
+    @Test
+    public void successfullyReleaseWriterBuffers() throws Exception {
+        ByteBufferPool pool = new ByteBufferPool(4, 8);
+        ByteArrayWriter writer = new ByteArrayWriter(pool);
+        writer.writeBinary(new byte[10]);
+        assertEquals(3, writer.getBufferList().size());
+
+        writer.release();
+        assertEquals(3, pool.pooledBuffers());
+
+        new ByteArrayWriter(pool);
+        assertEquals(1, pool.hits());
+    }
+}
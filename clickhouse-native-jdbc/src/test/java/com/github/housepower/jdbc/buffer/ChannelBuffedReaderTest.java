@@ -0,0 +1,111 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.housepower.jdbc.buffer;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChannelBuffedReaderTest {
+
+    @Test
+    public void successfullyReadWrittenBytes() throws Exception {
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            try (SocketChannel client = SocketChannel.open(server.getLocalAddress());
+                 SocketChannel peer = server.accept()) {
+                client.configureBlocking(false);
+                peer.configureBlocking(false);
+                ChannelBuffedWriter writer = new ChannelBuffedWriter(peer, 4);
+                ChannelBuffedReader reader = new ChannelBuffedReader(client, 3);
+
+                writer.writeBinary((byte) 1);
+                writer.writeBinary(new byte[] {2, 0, 0, 0, 0, 0, 0, 0, 3});
+                writer.flushToTarget(true);
+
+                assertEquals(1, reader.readBinary());
+                ByteBuffer buffered = reader.buffered();
+                assertEquals(2, buffered.get(buffered.position()));
+
+                byte[] bytes = new byte[8];
+                reader.readBinary(bytes);
+                assertArrayEquals(new byte[] {2, 0, 0, 0, 0, 0, 0, 0}, bytes);
+                assertEquals(3, reader.readBinary());
+
+                reader.close();
+                writer.close();
+            }
+        }
+    }
+
+    @Test
+    public void successfullyWriteWhileReadingWithSharedSelector() throws Exception {
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            try (SocketChannel client = SocketChannel.open(server.getLocalAddress());
+                 SocketChannel peer = server.accept()) {
+                client.socket().setSoTimeout(5000);
+                client.configureBlocking(false);
+                ChannelSelector selector = new ChannelSelector(client);
+                ChannelBuffedReader reader = new ChannelBuffedReader(client, selector, 8);
+                ChannelBuffedWriter writer = new ChannelBuffedWriter(client, selector, 8);
+
+                // like a Cancel sent while the query is waiting for its data
+                CompletableFuture<Integer> read = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return reader.readBinary();
+                    } catch (Exception ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                });
+                TimeUnit.MILLISECONDS.sleep(50);
+                writer.writeBinary((byte) 7);
+                writer.flushToTarget(true);
+
+                ByteBuffer received = ByteBuffer.allocate(1);
+                peer.read(received);
+                received.flip();
+                peer.write(received);
+                assertEquals(7, read.get(5, TimeUnit.SECONDS));
+                selector.close();
+            }
+        }
+    }
+
+    @Test
+    public void failedReadAfterSoTimeout() throws Exception {
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            try (SocketChannel client = SocketChannel.open(server.getLocalAddress());
+                 SocketChannel ignored = server.accept()) {
+                client.socket().setSoTimeout(50);
+                client.configureBlocking(false);
+                ChannelBuffedReader reader = new ChannelBuffedReader(client, 8);
+
+                assertThrows(SocketTimeoutException.class, reader::readBinary);
+                reader.close();
+            }
+        }
+    }
+}
@@ -14,12 +14,17 @@
 
 package com.github.housepower.jdbc.buffer;
 
+import com.github.housepower.jdbc.misc.ClickHouseCityHash;
 import com.github.housepower.jdbc.tool.FragmentBuffedReader;
 import org.junit.jupiter.api.Test;
 
 import net.jpountz.lz4.LZ4Compressor;
 import net.jpountz.lz4.LZ4Factory;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class CompressedBuffedReaderTest {
@@ -45,6 +50,87 @@ public class CompressedBuffedReaderTest {
         assertEquals(compressedBuffed.readBinary(), 7);
     }
 
+    @Test
+    public void successfullyReadSmallerFrameAfterLargerOne() throws Exception {
+        CompressedBuffedReader compressedBuffed = new CompressedBuffedReader(
+            new FragmentBuffedReader(compressedData(new byte[] {1, 2, 3, 4, 5, 6}), compressedData(new byte[] {7, 8}))
+        );
+
+        byte[] bytes = new byte[7];
+        compressedBuffed.readBinary(bytes);
+        assertArrayEquals(new byte[] {1, 2, 3, 4, 5, 6, 7}, bytes);
+
+        // the second frame is decompressed into the buffer of the first one, no stale bytes must show up
+        assertEquals(compressedBuffed.readBinary(), 8);
+    }
+
+    @Test
+    public void successfullyReadWrittenFrames() throws Exception {
+        byte[] bytes = new byte[10000];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i % 7);
+        }
+
+        for (String method : new String[] {"LZ4", "ZSTD", "NONE"}) {
+            ByteArrayWriter target = new ByteArrayWriter(1 << 16);
+            CompressedBuffedWriter writer = new CompressedBuffedWriter(4096, target, CompressionCodec.of(method, 3));
+            writer.writeBinary(bytes);
+            writer.flushToTarget(true);
+
+            ByteBuffer written = target.getBufferList().get(0);
+            byte[] frames = Arrays.copyOf(written.array(), written.position());
+            byte[] actual = new byte[bytes.length];
+            new CompressedBuffedReader(new FragmentBuffedReader(frames)).readBinary(actual);
+            assertArrayEquals(bytes, actual, method);
+        }
+    }
+
+    @Test
+    public void successfullyWriteFramesCompressedInParallel() throws Exception {
+        byte[] bytes = new byte[100000];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i % 13);
+        }
+
+        for (String method : new String[] {"LZ4", "ZSTD"}) {
+            ByteArrayWriter sequential = new ByteArrayWriter(1 << 20);
+            ByteArrayWriter parallel = new ByteArrayWriter(1 << 20);
+            for (ByteArrayWriter target : new ByteArrayWriter[] {sequential, parallel}) {
+                CompressedBuffedWriter writer = new CompressedBuffedWriter(4096, target,
+                    CompressionCodec.of(method, 3), target == parallel ? 4 : 0);
+                // both the straight path of whole frames and the buffered path
+                writer.writeBinary(bytes, 0, 50000);
+                for (int i = 50000; i < bytes.length; i++) {
+                    writer.writeBinary(bytes[i]);
+                }
+                writer.flushToTarget(true);
+            }
+
+            ByteBuffer expected = sequential.getBufferList().get(0);
+            ByteBuffer actual = parallel.getBufferList().get(0);
+            assertArrayEquals(Arrays.copyOf(expected.array(), expected.position()),
+                Arrays.copyOf(actual.array(), actual.position()), method);
+        }
+    }
+
+    @Test
+    public void failedReadCorruptedData() throws Exception {
+        byte[] corrupted = compressedData(new byte[] {1, 2, 3});
+        corrupted[corrupted.length - 1] ^= 1;
+
+        CompressedBuffedReader compressedBuffed = new CompressedBuffedReader(new FragmentBuffedReader(corrupted));
+        IOException ex = assertThrows(IOException.class, compressedBuffed::readBinary);
+        assertTrue(ex.getMessage().contains("Checksum doesn't match"));
+    }
+
+    @Test
+    public void successfullyReadWithoutVerifyingChecksum() throws Exception {
+        byte[] data = compressedData(new byte[] {1, 2, 3});
+        data[0] ^= 1;
+
+        CompressedBuffedReader compressedBuffed = new CompressedBuffedReader(new FragmentBuffedReader(data), false);
+        assertEquals(compressedBuffed.readBinary(), 1);
+    }
 
     private byte[] compressedData(byte[] bytes) {
         LZ4Compressor lz4Compressor = LZ4Factory.safeInstance().fastCompressor();
@@ -56,6 +142,12 @@ public class CompressedBuffedReaderTest {
         System.arraycopy(littleEndian(compressData.length + 9), 0, data, 17, 4);
         System.arraycopy(littleEndian(bytes.length), 0, data, 21, 4);
 
+        long[] checksum = ClickHouseCityHash.cityHash128(data, 16, compressData.length + 9);
+        System.arraycopy(littleEndian((int) checksum[0]), 0, data, 0, 4);
+        System.arraycopy(littleEndian((int) (checksum[0] >>> 32)), 0, data, 4, 4);
+        System.arraycopy(littleEndian((int) checksum[1]), 0, data, 8, 4);
+        System.arraycopy(littleEndian((int) (checksum[1] >>> 32)), 0, data, 12, 4);
+
         return data;
     }
 
@@ -0,0 +1,173 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.housepower.jdbc.connect;
+
+import com.github.housepower.jdbc.settings.ClickHouseConfig;
+
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadBalancingPolicyTest {
+
+    private static final List<InetSocketAddress> HOSTS = Arrays.asList(
+            InetSocketAddress.createUnresolved("rr-host1", 9000),
+            InetSocketAddress.createUnresolved("rr-host2", 9000),
+            InetSocketAddress.createUnresolved("rr-host3", 9000));
+
+    @Test
+    public void successfullyRotateHosts() {
+        InetSocketAddress first = LoadBalancingPolicy.ROUND_ROBIN.order(HOSTS).get(0);
+        int index = HOSTS.indexOf(first);
+        for (int i = 1; i <= 6; i++) {
+            List<InetSocketAddress> ordered = LoadBalancingPolicy.ROUND_ROBIN.order(HOSTS);
+            assertEquals(HOSTS.get((index + i) % HOSTS.size()), ordered.get(0));
+            assertEquals(HOSTS.size(), ordered.size());
+        }
+    }
+
+    @Test
+    public void successfullyPreferLeastInFlight() {
+        List<InetSocketAddress> hosts = Arrays.asList(
+                InetSocketAddress.createUnresolved("lif-host1", 9000),
+                InetSocketAddress.createUnresolved("lif-host2", 9000));
+        HostStats.of(hosts.get(0)).connectionOpened();
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(hosts.get(1), LoadBalancingPolicy.LEAST_IN_FLIGHT.order(hosts).get(0));
+        }
+
+        // an idle pooled connection loads a host less than a running query
+        HostStats.of(hosts.get(1)).connectionOpened();
+        HostStats.of(hosts.get(1)).queryStarted();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(hosts.get(0), LoadBalancingPolicy.LEAST_IN_FLIGHT.order(hosts).get(0));
+        }
+        HostStats.of(hosts.get(1)).queryFinished();
+        HostStats.of(hosts.get(1)).connectionClosed();
+        HostStats.of(hosts.get(0)).connectionClosed();
+    }
+
+    @Test
+    public void successfullyPreferLowLatency() {
+        List<InetSocketAddress> hosts = Arrays.asList(
+                InetSocketAddress.createUnresolved("lat-host1", 9000),
+                InetSocketAddress.createUnresolved("lat-host2", 9000));
+        HostStats.of(hosts.get(0)).recordLatency(5_000_000);
+        HostStats.of(hosts.get(1)).recordLatency(1_000_000);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(hosts.get(1), LoadBalancingPolicy.LATENCY.order(hosts).get(0));
+        }
+    }
+
+    @Test
+    public void successfullyFailoverToNextHost() throws Exception {
+        int closedPort;
+        try (ServerSocket closed = new ServerSocket(0)) {
+            closedPort = closed.getLocalPort();
+        }
+
+        try (ServerSocket server = new ServerSocket(0)) {
+            String url = "jdbc:clickhouse://127.0.0.1:" + closedPort + ",127.0.0.1:" + server.getLocalPort()
+                    + "?load_balancing_policy=round_robin&connect_timeout=1";
+            ClickHouseConfig config = new ClickHouseConfig(url, new Properties());
+
+            for (int i = 0; i < 2; i++) {
+                PhysicalConnection connection = PhysicalConnection.openPhysicalConnection(config);
+                try (Socket ignored = server.accept()) {
+                    assertEquals(1, HostStats.of(config.hosts().get(1)).openConnections());
+                } finally {
+                    connection.disPhysicalConnection();
+                }
+                assertEquals(0, HostStats.of(config.hosts().get(1)).openConnections());
+            }
+        }
+    }
+
+    @Test
+    public void successfullyFailoverOnFailedHandshake() throws Exception {
+        try (ServerSocket restarting = new ServerSocket(0); ServerSocket server = new ServerSocket(0)) {
+            String url = "jdbc:clickhouse://127.0.0.1:" + restarting.getLocalPort() + ",127.0.0.1:"
+                    + server.getLocalPort() + "?connect_timeout=1";
+            ClickHouseConfig config = new ClickHouseConfig(url, new Properties());
+
+            // the first host tried accepts the connection but fails the hello
+            AtomicInteger attempts = new AtomicInteger();
+            PhysicalConnection connection = PhysicalConnection.openPhysicalConnection(config, physical -> {
+                if (attempts.incrementAndGet() == 1) {
+                    throw new SQLException("hello failed");
+                }
+                return physical;
+            });
+            assertEquals(2, attempts.get());
+            assertEquals(1, HostStats.of(config.hosts().get(0)).openConnections()
+                    + HostStats.of(config.hosts().get(1)).openConnections());
+            connection.disPhysicalConnection();
+        }
+    }
+
+    @Test
+    public void successfullyTryUnreachableHostLast() throws Exception {
+        int unreachablePort;
+        try (ServerSocket closed = new ServerSocket(0)) {
+            unreachablePort = closed.getLocalPort();
+        }
+
+        try (ServerSocket server = new ServerSocket(0)) {
+            String url = "jdbc:clickhouse://127.0.0.1:" + unreachablePort + ",127.0.0.1:" + server.getLocalPort()
+                    + "?load_balancing_policy=round_robin&connect_timeout=1";
+            ClickHouseConfig config = new ClickHouseConfig(url, new Properties());
+            InetSocketAddress unreachable = config.hosts().get(0);
+            InetSocketAddress reachable = config.hosts().get(1);
+
+            // the unreachable host comes first in the rotation until it fails once
+            PhysicalConnection connection = PhysicalConnection.openPhysicalConnection(config);
+            server.accept().close();
+            connection.disPhysicalConnection();
+            assertTrue(HostStats.of(unreachable).inBackoff());
+            assertFalse(HostStats.of(reachable).inBackoff());
+
+            for (LoadBalancingPolicy policy : LoadBalancingPolicy.values()) {
+                for (int i = 0; i < 10; i++) {
+                    assertEquals(Arrays.asList(reachable, unreachable), policy.order(config.hosts()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void failedWhenNoHostAccepts() throws Exception {
+        int closedPort;
+        try (ServerSocket closed = new ServerSocket(0)) {
+            closedPort = closed.getLocalPort();
+        }
+        String url = "jdbc:clickhouse://127.0.0.1:" + closedPort + ",127.0.0.1:" + closedPort + "?connect_timeout=1";
+        ClickHouseConfig config = new ClickHouseConfig(url, new Properties());
+
+        SQLException ex = assertThrows(SQLException.class, () -> PhysicalConnection.openPhysicalConnection(config));
+        assertEquals(1, ex.getSuppressed().length);
+    }
+}
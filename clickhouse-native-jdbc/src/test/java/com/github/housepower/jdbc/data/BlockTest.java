@@ -0,0 +1,163 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.housepower.jdbc.data;
+
+import com.github.housepower.jdbc.buffer.ByteArrayWriter;
+import com.github.housepower.jdbc.buffer.ByteBufferPool;
+import com.github.housepower.jdbc.serializer.BinaryDeserializer;
+import com.github.housepower.jdbc.serializer.BinarySerializer;
+import com.github.housepower.jdbc.tool.FragmentBuffedReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlockTest {
+
+    private static final int ROWS = 3000;
+
+    @Test
+    public void successfullyAppendColumnsAsRows() throws Exception {
+        long[] ids = new long[ROWS];
+        double[] scores = new double[ROWS];
+        boolean[] nulls = new boolean[ROWS];
+        String[] names = new String[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            ids[i] = i * 31L - 7;
+            nulls[i] = i % 5 == 0;
+            // the row path writes the default value at the null positions
+            scores[i] = nulls[i] ? 0 : i / 3.0;
+            names[i] = "name" + i;
+        }
+
+        Block byRow = sampleBlock();
+        for (int i = 0; i < ROWS; i++) {
+            byRow.setObject(0, ids[i]);
+            byRow.setObject(1, nulls[i] ? null : scores[i]);
+            byRow.setObject(2, names[i]);
+            byRow.appendRow();
+        }
+
+        Block byColumn = sampleBlock();
+        byColumn.setColumnValues(0, ids, null);
+        byColumn.setColumnValues(1, scores, nulls);
+        byColumn.setColumnValues(2, names, null);
+        byColumn.appendColumns();
+
+        assertEquals(ROWS, byColumn.rows());
+        assertArrayEquals(serialize(byRow), serialize(byColumn));
+    }
+
+    @Test
+    public void successfullyReuseBlockAfterClearRows() throws Exception {
+        Block fresh = sampleBlock();
+        appendRows(fresh, 10, 20);
+
+        Block reused = sampleBlock();
+        appendRows(reused, 0, 10);
+        assertTrue(reused.bytes() > 0);
+        serialize(reused);
+        reused.clearRows();
+        reused.initWriteBuffer(new ByteBufferPool(1024, 0));
+        assertEquals(0, reused.rows());
+        assertEquals(0, reused.bytes());
+
+        appendRows(reused, 10, 20);
+        assertArrayEquals(serialize(fresh), serialize(reused));
+    }
+
+    @Test
+    public void successfullyFillNewWriteBlock() throws Exception {
+        Block fresh = sampleBlock();
+        appendRows(fresh, 0, 5);
+        fresh.setConstObject(2, "const");
+
+        Block next = fresh.newWriteBlock(new ByteBufferPool(1024, 0));
+        assertEquals(0, next.rows());
+        assertEquals(fresh.columns(), next.columns());
+        assertEquals("const", next.getObject(2));
+        appendRows(next, 0, 5);
+        assertArrayEquals(serialize(fresh), serialize(next));
+    }
+
+    @Test
+    public void failedAppendColumnsOfDifferentLength() throws Exception {
+        Block block = sampleBlock();
+        block.setColumnValues(0, new long[2], null);
+        block.setColumnValues(1, new double[3], null);
+        block.setColumnValues(2, new String[] {"a", "b"}, null);
+        assertThrows(SQLException.class, block::appendColumns);
+
+        block.setColumnValues(0, new int[2], null);
+        block.setColumnValues(1, new double[2], null);
+        block.setColumnValues(2, new String[] {"a", "b"}, null);
+        assertThrows(SQLException.class, block::appendColumns);
+    }
+
+    @Test
+    public void successfullyReadMatchingHeader() throws Exception {
+        Block other = new Block(0, new IColumn[] {
+            ColumnFactory.createColumn("id", DataTypeFactory.get("Int64", null), null),
+            ColumnFactory.createColumn("score", DataTypeFactory.get("Float64", null), null),
+            ColumnFactory.createColumn("name", DataTypeFactory.get("String", null), null)
+        });
+        byte[] header = serialize(sampleBlock());
+        Block withRows = sampleBlock();
+        appendRows(withRows, 0, 3);
+        BinaryDeserializer deserializer = new BinaryDeserializer(
+                new FragmentBuffedReader(header, header, serialize(withRows), header));
+
+        assertTrue(Block.readHeaderMatching(deserializer, null, sampleBlock()));
+        assertFalse(Block.readHeaderMatching(deserializer, null, other));
+        // rows are read past as well, the next block is read from its start
+        assertTrue(Block.readHeaderMatching(deserializer, null, sampleBlock()));
+        assertEquals(3, Block.readFrom(deserializer, null).columns());
+    }
+
+    private static void appendRows(Block block, int from, int to) throws SQLException {
+        for (int i = from; i < to; i++) {
+            block.setObject(0, (long) i);
+            block.setObject(1, i % 2 == 0 ? null : (double) i);
+            block.setObject(2, "name" + i);
+            block.appendRow();
+        }
+    }
+
+    private static Block sampleBlock() throws SQLException {
+        Block block = new Block(0, new IColumn[] {
+            ColumnFactory.createColumn("id", DataTypeFactory.get("Int64", null), null),
+            ColumnFactory.createColumn("score", DataTypeFactory.get("Nullable(Float64)", null), null),
+            ColumnFactory.createColumn("name", DataTypeFactory.get("String", null), null)
+        });
+        block.initWriteBuffer(new ByteBufferPool(1024, 0));
+        return block;
+    }
+
+    private static byte[] serialize(Block block) throws Exception {
+        ByteArrayWriter writer = new ByteArrayWriter(1024);
+        BinarySerializer serializer = new BinarySerializer(writer, false);
+        block.writeTo(serializer);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (ByteBuffer buffer : writer.getBufferList()) {
+            out.write(buffer.array(), buffer.arrayOffset(), buffer.position());
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.housepower.jdbc.data;
+
+import com.github.housepower.jdbc.ClickHouseArray;
+import com.github.housepower.jdbc.buffer.ByteArrayWriter;
+import com.github.housepower.jdbc.serializer.BinaryDeserializer;
+import com.github.housepower.jdbc.serializer.BinarySerializer;
+import com.github.housepower.jdbc.tool.FragmentBuffedReader;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnArrayTest {
+
+    @Test
+    public void successfullyReadArrayColumn() throws Exception {
+        // [1, 2], [], [4294967295]
+        ByteArrayWriter writer = new ByteArrayWriter(1024);
+        BinarySerializer serializer = new BinarySerializer(writer, false);
+        serializer.writeLongs(new long[] {2, 2, 3});
+        serializer.writeInts(new int[] {1, 2, -1});
+
+        IColumn column = ColumnFactory.readColumn("tags", DataTypeFactory.get("Array(UInt32)", null), 3,
+            deserializer(writer));
+        assertTrue(column instanceof ColumnArray);
+        ColumnArray array = (ColumnArray) column;
+
+        assertArrayEquals(new long[] {1, 2}, array.getLongs(0));
+        assertArrayEquals(new long[0], array.getLongs(1));
+        assertArrayEquals(new long[] {4294967295L}, array.getLongs(2));
+        assertArrayEquals(new double[] {1, 2}, array.getDoubles(0));
+        assertArrayEquals(new Object[] {1L, 2L}, (Object[]) ((ClickHouseArray) array.values(0)).getArray());
+        assertSame(array.values(0), array.values(0));
+        assertFalse(array.isNull(1));
+        assertEquals(3, array.offsets().remaining());
+        assertTrue(array.nested() instanceof ColumnInt);
+    }
+
+    @Test
+    public void failedGetLongsOfWrittenColumn() throws Exception {
+        IColumn column = ColumnFactory.createColumn("tags", DataTypeFactory.get("Array(UInt32)", null), null);
+        ColumnArray array = (ColumnArray) column;
+
+        assertThrows(SQLException.class, () -> array.getLongs(0));
+        assertThrows(SQLException.class, () -> array.getDoubles(0));
+    }
+
+    @Test
+    public void successfullyReadNestedArrayColumn() throws Exception {
+        // [['a'], ['b', 'c']], [[]]
+        ByteArrayWriter writer = new ByteArrayWriter(1024);
+        BinarySerializer serializer = new BinarySerializer(writer, false);
+        serializer.writeLongs(new long[] {2, 3});
+        serializer.writeLongs(new long[] {1, 3, 3});
+        serializer.writeStringBinary("a");
+        serializer.writeStringBinary("b");
+        serializer.writeStringBinary("c");
+
+        IColumn column = ColumnFactory.readColumn("s", DataTypeFactory.get("Array(Array(String))", null), 2,
+            deserializer(writer));
+        Object[] first = (Object[]) ((ClickHouseArray) column.values(0)).getArray();
+        assertArrayEquals(new Object[] {"a"}, (Object[]) ((ClickHouseArray) first[0]).getArray());
+        assertArrayEquals(new Object[] {"b", "c"}, (Object[]) ((ClickHouseArray) first[1]).getArray());
+        Object[] second = (Object[]) ((ClickHouseArray) column.values(1)).getArray();
+        assertEquals(1, second.length);
+        assertEquals(0, ((Object[]) ((ClickHouseArray) second[0]).getArray()).length);
+    }
+
+    private static BinaryDeserializer deserializer(ByteArrayWriter writer) {
+        ByteBuffer written = writer.getBufferList().get(0);
+        return new BinaryDeserializer(new FragmentBuffedReader(Arrays.copyOf(written.array(), written.position())));
+    }
+}
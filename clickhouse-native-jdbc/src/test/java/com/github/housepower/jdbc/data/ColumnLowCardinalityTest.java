@@ -0,0 +1,125 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.housepower.jdbc.data;
+
+import com.github.housepower.jdbc.ClickHouseArray;
+import com.github.housepower.jdbc.buffer.ByteArrayWriter;
+import com.github.housepower.jdbc.buffer.ByteBufferPool;
+import com.github.housepower.jdbc.serializer.BinaryDeserializer;
+import com.github.housepower.jdbc.serializer.BinarySerializer;
+import com.github.housepower.jdbc.tool.FragmentBuffedReader;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnLowCardinalityTest {
+
+    @Test
+    public void successfullyReadWrittenBlock() throws Exception {
+        Block written = new Block(0, new IColumn[] {
+            ColumnFactory.createColumn("level", DataTypeFactory.get("LowCardinality(String)", null), null),
+            ColumnFactory.createColumn("host", DataTypeFactory.get("LowCardinality(Nullable(String))", null), null)
+        });
+        written.initWriteBuffer(new ByteBufferPool(1024, 0));
+        String[] levels = {"INFO", "WARN", "INFO", "", "INFO"};
+        String[] hosts = {"a", null, "a", "", "b"};
+        for (int i = 0; i < levels.length; i++) {
+            written.setObject(0, levels[i]);
+            written.setObject(1, hosts[i]);
+            written.appendRow();
+        }
+
+        ByteArrayWriter writer = new ByteArrayWriter(1024);
+        written.writeTo(new BinarySerializer(writer, false));
+        Block read = Block.readFrom(deserializer(writer), null);
+
+        IColumn level = read.getByPosition(0);
+        IColumn host = read.getByPosition(1);
+        assertTrue(level instanceof ColumnLowCardinality);
+        for (int i = 0; i < levels.length; i++) {
+            assertEquals(levels[i], level.getString(i));
+            assertEquals(hosts[i], host.values(i));
+            assertEquals(hosts[i] == null, host.isNull(i));
+        }
+        // the repeated values share one decoded String
+        assertSame(level.getString(0), level.getString(2));
+        ColumnLowCardinality dictionaryEncoded = (ColumnLowCardinality) level;
+        assertEquals("INFO", dictionaryEncoded.dictionary().getString(dictionaryEncoded.indexes().get(4)));
+        assertEquals(dictionaryEncoded.indexes().get(0), dictionaryEncoded.indexes().get(2));
+    }
+
+    @Test
+    public void successfullyWriteIntoReadSampleBlock() throws Exception {
+        // the server sends the columns of an INSERT as an empty block, the rows are written into it
+        Block header = new Block(0, new IColumn[] {
+            ColumnFactory.createColumn("host", DataTypeFactory.get("LowCardinality(Nullable(String))", null), null)
+        });
+        ByteArrayWriter headerWriter = new ByteArrayWriter(1024);
+        header.writeTo(new BinarySerializer(headerWriter, false));
+        Block sample = Block.readFrom(deserializer(headerWriter), null);
+
+        sample.initWriteBuffer(new ByteBufferPool(1024, 0));
+        String[] hosts = {"a", null, "b", "a"};
+        for (String host : hosts) {
+            sample.setObject(0, host);
+            sample.appendRow();
+        }
+
+        ByteArrayWriter writer = new ByteArrayWriter(1024);
+        sample.writeTo(new BinarySerializer(writer, false));
+        IColumn read = Block.readFrom(deserializer(writer), null).getByPosition(0);
+        for (int i = 0; i < hosts.length; i++) {
+            assertEquals(hosts[i], read.values(i));
+        }
+    }
+
+    @Test
+    public void successfullyReadArrayOfLowCardinality() throws Exception {
+        // [['x', 'y'], ['y']], the state prefix comes before the array offsets, indexes are UInt8
+        ByteArrayWriter writer = new ByteArrayWriter(1024);
+        BinarySerializer serializer = new BinarySerializer(writer, false);
+        serializer.writeLong(1);
+        serializer.writeLongs(new long[] {2, 3});
+        serializer.writeLong(1L << 9);
+        serializer.writeLong(3);
+        serializer.writeStringBinary("");
+        serializer.writeStringBinary("x");
+        serializer.writeStringBinary("y");
+        serializer.writeLong(3);
+        serializer.writeBytes(new byte[] {1, 2, 2});
+
+        IColumn column = ColumnFactory.readColumn("tags", DataTypeFactory.get("Array(LowCardinality(String))", null),
+            2, deserializer(writer));
+        assertArrayEquals(new Object[] {"x", "y"}, (Object[]) ((ClickHouseArray) column.values(0)).getArray());
+        assertArrayEquals(new Object[] {"y"}, (Object[]) ((ClickHouseArray) column.values(1)).getArray());
+    }
+
+    @Test
+    public void failedInsertNullIntoNonNullable() throws Exception {
+        IColumn column = ColumnFactory.createColumn("level", DataTypeFactory.get("LowCardinality(String)", null), null);
+        column.setColumnWriterBuffer(new ColumnWriterBuffer(new ByteBufferPool(1024, 0)));
+        assertThrows(SQLException.class, () -> column.write(null));
+    }
+
+    private static BinaryDeserializer deserializer(ByteArrayWriter writer) {
+        ByteBuffer written = writer.getBufferList().get(0);
+        return new BinaryDeserializer(new FragmentBuffedReader(Arrays.copyOf(written.array(), written.position())));
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.housepower.jdbc.data;
+
+import com.github.housepower.jdbc.buffer.ByteArrayWriter;
+import com.github.housepower.jdbc.serializer.BinaryDeserializer;
+import com.github.housepower.jdbc.serializer.BinarySerializer;
+import com.github.housepower.jdbc.tool.FragmentBuffedReader;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnStringTest {
+
+    private static final String[] VALUES = {"", "abc", "张三", "a longer value than the others", "x"};
+
+    @Test
+    public void successfullyReadStringColumn() throws Exception {
+        ByteArrayWriter writer = new ByteArrayWriter(1024);
+        BinarySerializer serializer = new BinarySerializer(writer, false);
+        for (String value : VALUES) {
+            serializer.writeStringBinary(value);
+        }
+        ByteBuffer written = writer.getBufferList().get(0);
+        byte[] bytes = Arrays.copyOf(written.array(), written.position());
+
+        BinaryDeserializer deserializer = new BinaryDeserializer(new FragmentBuffedReader(
+            Arrays.copyOfRange(bytes, 0, 7), Arrays.copyOfRange(bytes, 7, bytes.length)));
+        IColumn column = ColumnFactory.readColumn("s", DataTypeFactory.get("String", null), VALUES.length,
+            deserializer);
+        assertTrue(column instanceof ColumnString);
+
+        int total = 0;
+        for (int i = 0; i < VALUES.length; i++) {
+            byte[] expected = VALUES[i].getBytes(StandardCharsets.UTF_8);
+            assertArrayEquals(expected, column.getBytes(i));
+            assertEquals(VALUES[i], column.getString(i));
+            assertEquals(VALUES[i], column.values(i));
+            assertFalse(column.isNull(i));
+            total += expected.length;
+        }
+
+        ColumnString strings = (ColumnString) column;
+        assertEquals(total, strings.bytes().remaining());
+        assertEquals(VALUES.length + 1, strings.offsets().remaining());
+        assertEquals(total, strings.offsets().get(VALUES.length));
+    }
+
+    @Test
+    public void successfullyReadNullableStringColumn() throws Exception {
+        ByteArrayWriter writer = new ByteArrayWriter(1024);
+        BinarySerializer serializer = new BinarySerializer(writer, false);
+        serializer.writeBytes(new byte[] {0, 1, 0});
+        serializer.writeStringBinary("a");
+        serializer.writeStringBinary("");
+        serializer.writeStringBinary("c");
+        ByteBuffer written = writer.getBufferList().get(0);
+
+        IColumn column = ColumnFactory.readColumn("s", DataTypeFactory.get("Nullable(String)", null), 3,
+            new BinaryDeserializer(new FragmentBuffedReader(Arrays.copyOf(written.array(), written.position()))));
+        assertEquals("a", column.getString(0));
+        assertNull(column.getString(1));
+        assertNull(column.getBytes(1));
+        assertTrue(column.isNull(1));
+        assertArrayEquals(new byte[] {'c'}, column.getBytes(2));
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.housepower.jdbc.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataTypeFactoryTest {
+
+    @Test
+    public void successfullyReuseParsedTypes() throws Exception {
+        String type = "Array(Tuple(Nullable(Decimal(18, 4)), Enum8('a' = 1, 'b' = 2)))";
+        long hits = DataTypeFactory.cacheHits();
+
+        IDataType first = DataTypeFactory.get(type, null);
+        IDataType second = DataTypeFactory.get(type, null);
+
+        assertSame(first, second);
+        assertTrue(DataTypeFactory.cacheHits() > hits);
+    }
+
+    @Test
+    public void successfullyParseAgainAfterClear() throws Exception {
+        IDataType first = DataTypeFactory.get("Nullable(FixedString(16))", null);
+        DataTypeFactory.clearCache();
+        IDataType second = DataTypeFactory.get("Nullable(FixedString(16))", null);
+
+        assertNotSame(first, second);
+        assertEquals(first.name(), second.name());
+    }
+
+    @Test
+    public void failedParseIsNotCached() {
+        assertThrows(SQLException.class, () -> DataTypeFactory.get("Int32 junk", null));
+        assertThrows(SQLException.class, () -> DataTypeFactory.get("Int32 junk", null));
+    }
+}
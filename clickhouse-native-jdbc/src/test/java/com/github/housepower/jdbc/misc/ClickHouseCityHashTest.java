@@ -0,0 +1,54 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.housepower.jdbc.misc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class ClickHouseCityHashTest {
+
+    // {length, low, high} of the bytes (i * 31 + 7) from offset 3, hashed by the former implementation,
+    // covering every code path: empty, < 16, 16..64, 64..128 and > 128 bytes. The empty one is the
+    // CityHash128 v1.0.2 reference value the server uses.
+    private static final long[][] VECTORS = {
+        {0, 0x3DF09DFC64C09A2BL, 0x3CB540C392E51E29L},
+        {7, 0x8DB35E11A76A9F06L, 0x03104A84E2DEC75CL},
+        {16, 0x8F984E7C12D3BD1EL, 0xA1578EF0350176D2L},
+        {33, 0x1CC326F436BE5DC3L, 0x8B129820F41B83D4L},
+        {64, 0x2C6D98B18E6F6252L, 0xFBD46E47D1A23B4FL},
+        {100, 0x1B61C57CB3642094L, 0x562C677A23DF84C0L},
+        {128, 0xA69D69DAF7E95314L, 0xAF9D9B532707CE00L},
+        {200, 0x0835516F0FA125FFL, 0x750D88613B8FF23FL},
+        {1000, 0x01E25763C3BBDE54L, 0x37FD29C44AAD72DCL},
+    };
+
+    @Test
+    public void successfullyHashKnownVectors() {
+        byte[] data = new byte[1003];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 31 + 7);
+        }
+
+        long[] hash = new long[2];
+        for (long[] vector : VECTORS) {
+            long[] expected = {vector[1], vector[2]};
+            ClickHouseCityHash.cityHash128(data, 3, (int) vector[0], hash);
+            assertArrayEquals(expected, hash, "length " + vector[0]);
+            assertArrayEquals(expected, ClickHouseCityHash.cityHash128(data, 3, (int) vector[0]), "length " + vector[0]);
+        }
+    }
+}
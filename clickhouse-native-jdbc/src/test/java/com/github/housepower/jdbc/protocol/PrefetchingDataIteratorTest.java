@@ -0,0 +1,160 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.housepower.jdbc.protocol;
+
+import com.github.housepower.jdbc.data.Block;
+import com.github.housepower.jdbc.misc.CheckedIterator;
+
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrefetchingDataIteratorTest {
+
+    @Test
+    public void successfullyReadAllBlocksInOrder() throws Exception {
+        PrefetchingDataIterator iterator = new PrefetchingDataIterator(new Source(100, 10, -1), 4, Long.MAX_VALUE);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(iterator.hasNext());
+            assertEquals(i, iterator.next().bytes());
+        }
+        assertFalse(iterator.hasNext());
+        assertNull(iterator.next());
+        assertEquals(0, iterator.queuedBytes());
+    }
+
+    @Test
+    public void prefetchIsBoundedByBlocks() throws Exception {
+        Source source = new Source(100, 10, -1);
+        PrefetchingDataIterator iterator = new PrefetchingDataIterator(source, 3, Long.MAX_VALUE);
+
+        awaitProduced(source, 3);
+        TimeUnit.MILLISECONDS.sleep(50);
+        assertEquals(3, source.produced.get());
+
+        iterator.next();
+        awaitProduced(source, 4);
+        TimeUnit.MILLISECONDS.sleep(50);
+        assertEquals(4, source.produced.get());
+        iterator.close();
+    }
+
+    @Test
+    public void prefetchIsBoundedByBytes() throws Exception {
+        Source source = new Source(100, 1000, -1);
+        PrefetchingDataIterator iterator = new PrefetchingDataIterator(source, 100, 2500);
+
+        awaitProduced(source, 3);
+        TimeUnit.MILLISECONDS.sleep(50);
+        assertEquals(3, source.produced.get());
+        assertEquals(3000, iterator.queuedBytes());
+        iterator.close();
+    }
+
+    @Test
+    public void failureIsRaisedAfterPrefetchedBlocks() throws Exception {
+        PrefetchingDataIterator iterator = new PrefetchingDataIterator(new Source(100, 10, 2), 4, Long.MAX_VALUE);
+
+        assertNotNull(iterator.next());
+        assertNotNull(iterator.next());
+        SQLException ex = assertThrows(SQLException.class, iterator::hasNext);
+        assertEquals("broken block 2", ex.getMessage());
+    }
+
+    @Test
+    public void closeStopsReadingTheSource() throws Exception {
+        Source source = new Source(100, 10, -1);
+        PrefetchingDataIterator iterator = new PrefetchingDataIterator(source, 2, Long.MAX_VALUE);
+
+        awaitProduced(source, 2);
+        iterator.close();
+        int produced = source.produced.get();
+        TimeUnit.MILLISECONDS.sleep(50);
+        assertEquals(produced, source.produced.get());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void closeCancelsTheBlockedRead() throws Exception {
+        // the server sends nothing more until the query is cancelled
+        CountDownLatch cancelled = new CountDownLatch(1);
+        CheckedIterator<DataResponse, SQLException> blocked = new CheckedIterator<DataResponse, SQLException>() {
+            @Override
+            public boolean hasNext() throws SQLException {
+                try {
+                    cancelled.await();
+                } catch (InterruptedException ex) {
+                    throw new SQLException(ex);
+                }
+                return false;
+            }
+
+            @Override
+            public DataResponse next() {
+                return null;
+            }
+        };
+        PrefetchingDataIterator iterator = new PrefetchingDataIterator(blocked, 2, Long.MAX_VALUE, cancelled::countDown);
+
+        iterator.close();
+        assertEquals(0, cancelled.getCount());
+        assertFalse(iterator.hasNext());
+    }
+
+    private static void awaitProduced(Source source, int count) throws InterruptedException {
+        for (int i = 0; i < 500 && source.produced.get() < count; i++) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    /**
+     * Produces {@code total} blocks, the first ones sized by their index and then {@code bytes} each
+     * once bounded by bytes, failing at {@code failAt} if not negative.
+     */
+    private static class Source implements CheckedIterator<DataResponse, SQLException> {
+        private final int total;
+        private final long bytes;
+        private final int failAt;
+        private final AtomicInteger produced = new AtomicInteger();
+
+        Source(int total, long bytes, int failAt) {
+            this.total = total;
+            this.bytes = bytes;
+            this.failAt = failAt;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return produced.get() < total;
+        }
+
+        @Override
+        public DataResponse next() throws SQLException {
+            int idx = produced.get();
+            if (idx == failAt) {
+                throw new SQLException("broken block " + idx);
+            }
+            produced.incrementAndGet();
+            return new DataResponse("", new Block(), bytes >= 1000 ? bytes : idx);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.housepower.jdbc.serializer;
+
+import com.github.housepower.jdbc.tool.FragmentBuffedReader;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryDeserializerTest {
+
+    @Test
+    public void successfullyReadLongsAcrossFragments() throws Exception {
+        long[] expected = {1L, -1L, Long.MAX_VALUE, Long.MIN_VALUE, 0x0102030405060708L};
+        ByteBuffer buffer = ByteBuffer.allocate(expected.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (long value : expected) {
+            buffer.putLong(value);
+        }
+
+        long[] actual = new long[expected.length];
+        fragmentedDeserializer(buffer.array(), 3, 13, 17).readLongs(actual);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void successfullyReadIntsAndDoublesAcrossFragments() throws Exception {
+        int[] expectedInts = {7, -7, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        double[] expectedDoubles = {0.5, -1.25, Double.MAX_VALUE, Double.NaN};
+        ByteBuffer buffer = ByteBuffer.allocate(expectedInts.length * Integer.BYTES
+            + expectedDoubles.length * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (int value : expectedInts) {
+            buffer.putInt(value);
+        }
+        for (double value : expectedDoubles) {
+            buffer.putDouble(value);
+        }
+
+        BinaryDeserializer deserializer = fragmentedDeserializer(buffer.array(), 5, 14, 30);
+        int[] actualInts = new int[expectedInts.length];
+        double[] actualDoubles = new double[expectedDoubles.length];
+        deserializer.readInts(actualInts);
+        deserializer.readDoubles(actualDoubles);
+
+        assertArrayEquals(expectedInts, actualInts);
+        assertArrayEquals(expectedDoubles, actualDoubles);
+    }
+
+    @Test
+    public void successfullyReadScalarsAcrossFragments() throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(Short.BYTES + Long.BYTES + Float.BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putShort((short) -2).putLong(Long.MIN_VALUE + 1).putFloat(3.5F);
+
+        BinaryDeserializer deserializer = fragmentedDeserializer(buffer.array(), 1, 6);
+        assertEquals((short) -2, deserializer.readShort());
+        assertEquals(Long.MIN_VALUE + 1, deserializer.readLong());
+        assertEquals(3.5F, deserializer.readFloat());
+    }
+
+    private BinaryDeserializer fragmentedDeserializer(byte[] bytes, int... splits) {
+        byte[][] fragments = new byte[splits.length + 1][];
+        int from = 0;
+        for (int i = 0; i < splits.length; i++) {
+            fragments[i] = Arrays.copyOfRange(bytes, from, splits[i]);
+            from = splits[i];
+        }
+        fragments[splits.length] = Arrays.copyOfRange(bytes, from, bytes.length);
+        return new BinaryDeserializer(new FragmentBuffedReader(fragments));
+    }
+}
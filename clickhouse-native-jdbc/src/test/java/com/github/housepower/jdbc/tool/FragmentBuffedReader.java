@@ -15,6 +15,8 @@
 package com.github.housepower.jdbc.tool;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import com.github.housepower.jdbc.buffer.BuffedReader;
 
@@ -32,13 +34,19 @@ public class FragmentBuffedReader implements BuffedReader {
 
     @Override
     public int readBinary() throws IOException {
-        throw new UnsupportedOperationException();
+        ByteBuffer buffered = buffered();
+        consume(1);
+        return buffered.get() & 0xFF;
     }
 
     @Override
     public int readBinary(byte[] bytes) throws IOException {
+        return readBinary(bytes, 0, bytes.length);
+    }
 
-        for (int i = 0; i < bytes.length; ) {
+    @Override
+    public int readBinary(byte[] bytes, int offset, int length) throws IOException {
+        for (int i = offset; i < offset + length; ) {
             if (bytesPosition == fragments[fragmentPos].length) {
                 fragmentPos++;
                 bytesPosition = 0;
@@ -47,7 +55,7 @@ public class FragmentBuffedReader implements BuffedReader {
 
             byte[] fragment = fragments[fragmentPos];
 
-            int pending = bytes.length - i;
+            int pending = offset + length - i;
             int fillLength = Math.min(pending, fragment.length - bytesPosition);
 
             if (fillLength > 0) {
@@ -57,6 +65,22 @@ public class FragmentBuffedReader implements BuffedReader {
                 bytesPosition += fillLength;
             }
         }
-        return bytes.length;
+        return length;
+    }
+
+    @Override
+    public ByteBuffer buffered() throws IOException {
+        while (bytesPosition == fragments[fragmentPos].length) {
+            fragmentPos++;
+            bytesPosition = 0;
+        }
+        byte[] fragment = fragments[fragmentPos];
+        return ByteBuffer.wrap(fragment, bytesPosition, fragment.length - bytesPosition)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public void consume(int length) {
+        bytesPosition += length;
     }
 }